@@ -0,0 +1,157 @@
+package com.sphere.api.controller;
+
+import cn.hutool.crypto.SecureUtil;
+import com.sphere.api.vo.PageResult;
+import com.sphere.api.vo.Result;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigChangesDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigChangesParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigPageParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantIdParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantIdsParam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 支付服务商户配置接口桩
+ * 仅在stub环境启用，模拟 sphere-payment 的商户配置查询接口，用于本地联调预热和缓存逻辑。
+ * 位于 src/dev，只在 -P stub 构建时编译，不进入生产包。
+ * 商户ID为 10001 起的连续编号，配置按商户ID固定生成
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Profile("stub")
+@RestController
+public class PaymentServiceStubController {
+
+    /**
+     * 模拟的启用商户数
+     */
+    @Value("${stub.payment.merchant-count:1000}")
+    private int merchantCount;
+
+    private static final int FIRST_MERCHANT_ID = 10001;
+
+    private static final long STUB_VERSION = 1L;
+
+    /**
+     * 分页查询商户配置
+     */
+    @PostMapping("/v1/getMerchantConfigs")
+    public Mono<PageResult<MerchantConfigDTO>> getMerchantConfigs(@RequestBody MerchantConfigPageParam param) {
+        List<MerchantConfigDTO> configs = page(param).mapToObj(this::merchantConfig).toList();
+        return Mono.just(PageResult.success((long) merchantCount, configs));
+    }
+
+    /**
+     * 分页查询沙箱商户配置
+     */
+    @PostMapping("/sandbox/v1/getMerchantConfigs")
+    public Mono<PageResult<MerchantSandboxConfigDTO>> getSandboxMerchantConfigs(@RequestBody MerchantConfigPageParam param) {
+        List<MerchantSandboxConfigDTO> configs = page(param).mapToObj(this::sandboxMerchantConfig).toList();
+        return Mono.just(PageResult.success((long) merchantCount, configs));
+    }
+
+    /**
+     * 查询商户配置
+     */
+    @PostMapping("/v1/getMerchantConfig")
+    public Mono<Result<MerchantConfigDTO>> getMerchantConfig(@RequestBody MerchantIdParam param) {
+        return Mono.just(Result.success(merchantConfig(Integer.parseInt(param.getMerchantId()))));
+    }
+
+    /**
+     * 查询沙箱商户配置
+     */
+    @PostMapping("/sandbox/v1/getMerchantConfig")
+    public Mono<Result<MerchantSandboxConfigDTO>> getSandboxMerchantConfig(@RequestBody MerchantIdParam param) {
+        return Mono.just(Result.success(sandboxMerchantConfig(Integer.parseInt(param.getMerchantId()))));
+    }
+
+    /**
+     * 按商户ID批量查询商户配置
+     */
+    @PostMapping("/v1/getMerchantConfigsByIds")
+    public Mono<Result<List<MerchantConfigDTO>>> getMerchantConfigsByIds(@RequestBody MerchantIdsParam param) {
+        return Mono.just(Result.success(param.getMerchantIds().stream()
+                .map(Integer::parseInt).map(this::merchantConfig).toList()));
+    }
+
+    /**
+     * 按商户ID批量查询沙箱商户配置
+     */
+    @PostMapping("/sandbox/v1/getMerchantConfigsByIds")
+    public Mono<Result<List<MerchantSandboxConfigDTO>>> getSandboxMerchantConfigsByIds(
+            @RequestBody MerchantIdsParam param) {
+        return Mono.just(Result.success(param.getMerchantIds().stream()
+                .map(Integer::parseInt).map(this::sandboxMerchantConfig).toList()));
+    }
+
+    /**
+     * 查询商户配置增量变更
+     * 接口桩的商户配置不变，只返回固定版本
+     */
+    @PostMapping("/v1/getMerchantConfigChanges")
+    public Mono<Result<MerchantConfigChangesDTO<MerchantConfigDTO>>> getMerchantConfigChanges(
+            @RequestBody MerchantConfigChangesParam param) {
+        return Mono.just(Result.success(noChanges()));
+    }
+
+    /**
+     * 查询沙箱商户配置增量变更
+     * 接口桩的商户配置不变，只返回固定版本
+     */
+    @PostMapping("/sandbox/v1/getMerchantConfigChanges")
+    public Mono<Result<MerchantConfigChangesDTO<MerchantSandboxConfigDTO>>> getSandboxMerchantConfigChanges(
+            @RequestBody MerchantConfigChangesParam param) {
+        return Mono.just(Result.success(noChanges()));
+    }
+
+    private <T> MerchantConfigChangesDTO<T> noChanges() {
+        MerchantConfigChangesDTO<T> changes = new MerchantConfigChangesDTO<>();
+        changes.setVersion(STUB_VERSION);
+        changes.setHasMore(false);
+        changes.setUpdated(Collections.emptyList());
+        changes.setRemoved(Collections.emptyList());
+        return changes;
+    }
+
+    private IntStream page(MerchantConfigPageParam param) {
+        int pageNum = Objects.isNull(param.getPageNum()) ? 1 : Math.max(1, param.getPageNum());
+        int pageSize = Objects.isNull(param.getPageSize()) ? 200 : Math.max(1, param.getPageSize());
+        int from = (pageNum - 1) * pageSize;
+        int to = Math.min(merchantCount, from + pageSize);
+        log.debug("商户配置接口桩分页查询 - 页码: {}, 每页条数: {}", pageNum, pageSize);
+        return IntStream.range(Math.min(from, to), to).map(index -> FIRST_MERCHANT_ID + index);
+    }
+
+    private MerchantConfigDTO merchantConfig(int merchantId) {
+        MerchantConfigDTO config = new MerchantConfigDTO();
+        config.setMerchantId(String.valueOf(merchantId));
+        config.setMerchantSecret(SecureUtil.sha256("stub-secret-" + merchantId));
+        config.setExpiryDate(LocalDateTime.now().plusYears(1));
+        return config;
+    }
+
+    private MerchantSandboxConfigDTO sandboxMerchantConfig(int merchantId) {
+        MerchantSandboxConfigDTO config = new MerchantSandboxConfigDTO();
+        config.setMerchantId(String.valueOf(merchantId));
+        config.setMerchantName("Stub Merchant " + merchantId);
+        config.setMerchantSecret(SecureUtil.sha256("stub-sandbox-secret-" + merchantId));
+        return config;
+    }
+}
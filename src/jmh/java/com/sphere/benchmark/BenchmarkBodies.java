@@ -0,0 +1,69 @@
+package com.sphere.benchmark;
+
+import java.util.Random;
+
+/**
+ * 基准测试请求体生成器
+ * 生成格式化（带缩进和换行）的收款请求体，与商户实际提交的报文结构一致
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public final class BenchmarkBodies {
+
+    private BenchmarkBodies() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 生成收款请求体
+     * 通过追加商品明细使报文达到目标大小
+     *
+     * @param targetBytes 目标字节数
+     * @return 请求体
+     */
+    public static String payInRequest(int targetBytes) {
+        Random random = new Random(targetBytes);
+        StringBuilder builder = new StringBuilder(targetBytes + 512)
+                .append("{\n")
+                .append("    \"merchantId\": \"10001\",\n")
+                .append("    \"merchantOrderId\": \"ORD").append(Math.abs(random.nextLong())).append("\",\n")
+                .append("    \"paymentMethod\": \"QRIS\",\n")
+                .append("    \"paymentAmount\": 150000,\n")
+                .append("    \"currency\": \"IDR\",\n")
+                .append("    \"transactionTime\": \"2024-01-01 12:00:00\",\n")
+                .append("    \"callbackUrl\": \"https://merchant.example.com/callback\",\n")
+                .append("    \"customer\": {\n")
+                .append("        \"name\": \"Budi Santoso\",\n")
+                .append("        \"email\": \"budi@example.com\",\n")
+                .append("        \"phone\": \"+628123456789\"\n")
+                .append("    },\n")
+                .append("    \"items\": [");
+
+        int index = 0;
+        while (builder.length() < targetBytes - 16) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            builder.append("\n        {\n")
+                    .append("            \"sku\": \"SKU-").append(index).append("\",\n")
+                    .append("            \"name\": \"Item ").append(index).append(" / ukuran M\",\n")
+                    .append("            \"quantity\": ").append(1 + random.nextInt(5)).append(",\n")
+                    .append("            \"price\": ").append(1000 + random.nextInt(99000)).append("\n")
+                    .append("        }");
+            index++;
+        }
+        return builder.append("\n    ]\n}").toString();
+    }
+
+    /**
+     * 生成支付服务成功响应
+     * data为收款请求体，与业务服务返回结构一致
+     *
+     * @param targetBytes 目标字节数
+     * @return 响应体
+     */
+    public static String successResponse(int targetBytes) {
+        return "{\"code\":200,\"message\":\"success\",\"data\":" + payInRequest(targetBytes) + "}";
+    }
+}
@@ -0,0 +1,181 @@
+package com.sphere.benchmark;
+
+import com.sphere.application.dto.ApiConfigDTO;
+import com.sphere.infrastructure.cache.OffHeapCredentialStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 堆外凭证存储并发压测
+ * 读、写、删除和过期清理（含已到期凭证）并发执行，数据块设置得很小，运行期间频繁整理数据块和扩容索引。
+ * 每次读取都校验记录内容与缓存键、版本一致，读到不一致的数据时抛出异常，基准测试失败
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class CredentialStoreBenchmark {
+
+    private static final int KEYS = 4096;
+
+    private static final long REFRESH_AFTER_MILLIS = 60_000;
+
+    /**
+     * 清理时间跨度，写入时间在此范围内随机，清理线程每次删除其中较旧的一部分
+     */
+    private static final long STORED_AT_SPAN = 1_000;
+
+    private static final LocalDateTime EXPIRY_DATE = LocalDateTime.of(2030, 1, 1, 0, 0, 0, 123_000_000);
+
+    /**
+     * 已到期的凭证，清理线程按较短的保留时间删除
+     */
+    private static final LocalDateTime EXPIRED_DATE = LocalDateTime.of(2020, 1, 1, 0, 0, 0, 456_000_000);
+
+    private OffHeapCredentialStore store;
+
+    private String[] keys;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final AtomicInteger corrupted = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // 64KB 数据块，持续写入时每秒整理多次
+        store = new OffHeapCredentialStore(64 * 1024, 16);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "merchant_config:" + (i % 7 == 0 ? "商户" : "M") + i;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        AtomicInteger visited = new AtomicInteger();
+        store.forEach((key, apiConfig) -> {
+            visited.incrementAndGet();
+            OffHeapCredentialStore.Credential credential = store.get(key);
+            if (Objects.isNull(credential) || !consistent(key, credential)) {
+                corrupted.incrementAndGet();
+            }
+        });
+        if (visited.get() != store.size()) {
+            throw new IllegalStateException("Size mismatch: size=" + store.size() + ", visited=" + visited.get());
+        }
+        if (store.liveBytes() > store.allocatedBytes()) {
+            throw new IllegalStateException("Live bytes exceed allocated bytes");
+        }
+        if (corrupted.get() > 0) {
+            throw new IllegalStateException("Corrupted credentials: " + corrupted.get());
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public OffHeapCredentialStore.Credential get() {
+        String key = key();
+        OffHeapCredentialStore.Credential credential = store.get(key);
+        if (Objects.nonNull(credential) && !consistent(key, credential)) {
+            corrupted.incrementAndGet();
+            throw new IllegalStateException("Corrupted credential: " + key);
+        }
+        return credential;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public boolean put() {
+        String key = key();
+        long version = versions.incrementAndGet();
+        long storedAt = System.currentTimeMillis() - ThreadLocalRandom.current().nextLong(STORED_AT_SPAN);
+        return store.put(key, credential(key, version), version, storedAt, REFRESH_AFTER_MILLIS);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean remove() {
+        return store.remove(key(), versions.get());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        long storedBefore = now - STORED_AT_SPAN / 2;
+        long expiredStoredBefore = now - STORED_AT_SPAN / 4;
+        LocalDateTime dateTime = LocalDateTime.now();
+        int removed = 0;
+        for (String key : store.keysStoredBefore(storedBefore, expiredStoredBefore, dateTime)) {
+            OffHeapCredentialStore.Credential credential = store.removeIfStoredBefore(key, storedBefore,
+                    expiredStoredBefore, dateTime);
+            if (Objects.nonNull(credential)) {
+                boolean expired = EXPIRED_DATE.equals(credential.getApiConfig().getExpiryDate());
+                long limit = expired ? expiredStoredBefore : storedBefore;
+                if (!consistent(key, credential) || credential.getStoredAt() >= limit) {
+                    corrupted.incrementAndGet();
+                    throw new IllegalStateException("Swept wrong credential: " + key);
+                }
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private String key() {
+        return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    }
+
+    /**
+     * 各字段都由缓存键和版本生成，长度随版本变化，记录大小不固定
+     */
+    private static ApiConfigDTO credential(String key, long version) {
+        ApiConfigDTO apiConfig = new ApiConfigDTO();
+        apiConfig.setMerchantSecret(secret(key, version));
+        apiConfig.setPublicKey(version % 3 == 0 ? null : "pk-" + key + "-" + "x".repeat((int) (version % 97)));
+        apiConfig.setIpWhiteList(version % 5 == 0 ? null : "10.0.0." + version % 256 + "," + key);
+        apiConfig.setExpiryDate(version % 2 == 0 ? null : version % 4 == 1 ? EXPIRED_DATE : EXPIRY_DATE);
+        return apiConfig;
+    }
+
+    private static String secret(String key, long version) {
+        return "secret-" + key + "-" + version;
+    }
+
+    private static boolean consistent(String key, OffHeapCredentialStore.Credential credential) {
+        ApiConfigDTO expected = credential(key, credential.getVersion());
+        ApiConfigDTO actual = credential.getApiConfig();
+        return expected.getMerchantSecret().equals(actual.getMerchantSecret())
+                && Objects.equals(expected.getPublicKey(), actual.getPublicKey())
+                && Objects.equals(expected.getIpWhiteList(), actual.getIpWhiteList())
+                && Objects.equals(expected.getExpiryDate(), actual.getExpiryDate());
+    }
+}
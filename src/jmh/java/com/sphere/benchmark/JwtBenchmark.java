@@ -0,0 +1,70 @@
+package com.sphere.benchmark;
+
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.JWTPayload;
+import cn.hutool.jwt.JWTUtil;
+import com.sphere.application.dto.JwtTokenDTO;
+import com.sphere.application.service.JwtTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT校验基准测试
+ * 对比每次完整解析验签与按令牌缓存校验结果两种方式
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class JwtBenchmark {
+
+    /**
+     * 与 JwtTokenService 使用相同的签名密钥
+     */
+    private static final byte[] JWT_KEY = SecureUtil.sha256("sphere").getBytes(StandardCharsets.UTF_8);
+
+    private final JwtTokenService jwtTokenService = new JwtTokenService();
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.HOURS.toSeconds(1);
+        token = JWTUtil.createToken(Map.of("merchantId", "10001", JWTPayload.EXPIRES_AT, exp), JWT_KEY);
+    }
+
+    /**
+     * 每次请求完整解析并验签
+     */
+    @Benchmark
+    public boolean verifyUncached() {
+        JWT jwt = JWTUtil.parseToken(token);
+        return jwt.setKey(JWT_KEY).verify();
+    }
+
+    /**
+     * validateJwtToken 当前的校验方式
+     */
+    @Benchmark
+    public JwtTokenDTO verifyCached() {
+        return jwtTokenService.verify(token);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sphere.benchmark;
+
+import com.sphere.common.enums.ServiceCodeEnum;
+import com.sphere.common.utils.ResponseEnvelope;
+import com.sphere.infrastructure.filter.AbstractResponseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应处理基准测试
+ * 覆盖 handlerResult + buildSuccessHeader，与各 ResponseService 的处理流程一致；
+ * 与原先处理结果的一致性由 ResponseEnvelopeTest 校验
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ResponseBenchmark {
+
+    @Param({"512", "2048", "8192", "20480"})
+    public int bodyBytes;
+
+    private final BenchmarkResponseService responseService = new BenchmarkResponseService();
+
+    private String raw;
+
+    @Setup
+    public void setup() {
+        raw = BenchmarkBodies.successResponse(bodyBytes);
+    }
+
+    @Benchmark
+    public String handlerResponse() {
+        return responseService.handlerResponse(raw);
+    }
+
+    /**
+     * 暴露 AbstractResponseService 的受保护方法
+     */
+    private static class BenchmarkResponseService extends AbstractResponseService {
+
+        String handlerResponse(String raw) {
+            ResponseEnvelope envelope = handlerResult(ServiceCodeEnum.TRANSACTION_DEPOSIT, raw, "ResponseBenchmark");
+            return buildSuccessHeader(envelope);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sphere.benchmark;
+
+import com.sphere.common.enums.ServiceCodeEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务类型解析基准测试
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class RouteBenchmark {
+
+    @Param({"/v1.0/transaction/deposit", "/v1.0/inquiry-balance", "/payment/callback"})
+    public String path;
+
+    @Benchmark
+    public ServiceCodeEnum pathToEnum() {
+        return ServiceCodeEnum.pathToEnum(path);
+    }
+}
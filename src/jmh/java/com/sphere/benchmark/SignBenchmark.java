@@ -0,0 +1,119 @@
+package com.sphere.benchmark;
+
+import cn.hutool.crypto.SecureUtil;
+import com.sphere.common.utils.JsonMinifyDigest;
+import com.sphere.common.utils.SignUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名相关基准测试
+ * 覆盖请求体压缩、摘要、HmacSHA512签名及RSA签名验签
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class SignBenchmark {
+
+    private static final String PATH = "/v1.0/transaction/deposit";
+
+    private static final String ACCESS_TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJtZXJjaGFudElkIjoiMTAwMDEifQ.signature";
+
+    private static final String TIMESTAMP = "2024-01-01 12:00:00";
+
+    private static final String MERCHANT_SECRET = SecureUtil.sha256("merchant-secret");
+
+    @Param({"512", "2048", "8192", "20480"})
+    public int bodyBytes;
+
+    private String body;
+
+    private byte[] bodyBytesUtf8;
+
+    private String minified;
+
+    private String stringToSign;
+
+    private String privateKey;
+
+    private String publicKey;
+
+    private String rsaSigned;
+
+    @Setup
+    public void setup() {
+        body = BenchmarkBodies.payInRequest(bodyBytes);
+        bodyBytesUtf8 = body.getBytes(StandardCharsets.UTF_8);
+        minified = SignUtil.minify(body);
+        stringToSign = SignUtil.stringToSign(PATH, ACCESS_TOKEN, body, TIMESTAMP);
+
+        KeyPair keyPair = SecureUtil.generateKeyPair("RSA", 2048);
+        privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+        publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        rsaSigned = SignUtil.doSign(body, privateKey, "UTF-8");
+    }
+
+    @Benchmark
+    public String minify() {
+        return SignUtil.minify(body);
+    }
+
+    @Benchmark
+    public byte[] sha256() throws NoSuchAlgorithmException {
+        return SignUtil.SHA256(minified);
+    }
+
+    /**
+     * 原始方式：压缩+摘要+拼接待签名字符串
+     */
+    @Benchmark
+    public String stringToSign() {
+        return SignUtil.stringToSign(PATH, ACCESS_TOKEN, body, TIMESTAMP);
+    }
+
+    /**
+     * 读取请求体时的增量压缩摘要
+     */
+    @Benchmark
+    public String streamingDigest() {
+        JsonMinifyDigest digest = new JsonMinifyDigest();
+        digest.update(bodyBytesUtf8);
+        return digest.hexDigest();
+    }
+
+    @Benchmark
+    public String hmacSHA512() {
+        return SignUtil.hmacSHA512(stringToSign, MERCHANT_SECRET);
+    }
+
+    @Benchmark
+    public String doSign() {
+        return SignUtil.doSign(body, privateKey, "UTF-8");
+    }
+
+    @Benchmark
+    public boolean doCheck() {
+        return SignUtil.doCheck(body, rsaSigned, publicKey, "UTF-8");
+    }
+}
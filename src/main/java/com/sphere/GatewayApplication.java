@@ -5,10 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
-import org.springframework.context.annotation.Bean;
 import org.springframework.web.reactive.config.EnableWebFlux;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDateTime;
 import java.util.TimeZone;
@@ -35,13 +32,4 @@ public class GatewayApplication implements CommandLineRunner {
         log.info("===> Congratulations paysphere!");
         log.info("===> paysphere gateway started success!!!  Time:{}", LocalDateTime.now());
     }
-
-    /**
-     * 配置负载均衡的WebClient
-     */
-    @Bean
-    @LoadBalanced
-    public WebClient.Builder loadBalancedWebClientBuilder() {
-        return WebClient.builder();
-    }
 }
@@ -0,0 +1,29 @@
+package com.sphere.application.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Map;
+
+/**
+ * 已验证JWT数据传输对象
+ * 缓存签名校验通过的令牌声明，重复令牌无需再次解析和验签
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Data
+@Accessors(chain = true)
+public class JwtTokenDTO {
+
+    /**
+     * 令牌声明
+     */
+    private Map<String, Object> claims;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     * 令牌未携带exp时为缓存允许的最长时间
+     */
+    private long expiresAt;
+}
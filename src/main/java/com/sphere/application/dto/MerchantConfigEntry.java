@@ -0,0 +1,114 @@
+package com.sphere.application.dto;
+
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商户配置缓存项
+ * 远程获取商户配置时一次性构建，同时保存原始配置和转换后的API配置，
+ * 缓存命中时直接返回预先构建的Mono，无需反序列化和转换。
+ * 缓存项在多个请求间共享，调用方不得修改其中的配置对象
+ *
+ * @param <T> 商户配置类型（生产/沙箱）
+ * @author sphere
+ * @since 1.0.0
+ */
+@Getter
+public final class MerchantConfigEntry<T> {
+
+    /**
+     * 未关联同步版本
+     */
+    public static final long NO_VERSION = -1L;
+
+    /**
+     * 商户原始配置
+     */
+    private final T config;
+
+    /**
+     * 转换后的API配置
+     */
+    private final ApiConfigDTO apiConfig;
+
+    /**
+     * 包装原始配置的Mono，命中时直接复用
+     */
+    private final Mono<T> configMono;
+
+    /**
+     * 包装API配置的Mono，命中时直接复用
+     */
+    private final Mono<ApiConfigDTO> apiConfigMono;
+
+    /**
+     * 同步版本
+     * 加载开始时已同步的版本或增量变更的版本，版本较低的配置不能覆盖较高的配置
+     */
+    private final long version;
+
+    /**
+     * 加载时间（System.nanoTime）
+     */
+    private final long loadedAt;
+
+    /**
+     * 下次允许发起后台刷新的时间（System.nanoTime）
+     */
+    private final AtomicLong nextRefreshAt;
+
+    public MerchantConfigEntry(T config, ApiConfigDTO apiConfig, long version, long refreshAfterNanos) {
+        this(config, apiConfig, version, System.nanoTime(), refreshAfterNanos);
+    }
+
+    private MerchantConfigEntry(T config, ApiConfigDTO apiConfig, long version, long loadedAt,
+                                long refreshAfterNanos) {
+        this.config = config;
+        this.apiConfig = apiConfig;
+        this.version = version;
+        this.configMono = Mono.just(config);
+        this.apiConfigMono = Mono.just(apiConfig);
+        this.loadedAt = loadedAt;
+        this.nextRefreshAt = new AtomicLong(loadedAt + refreshAfterNanos);
+    }
+
+    /**
+     * 从快照恢复的缓存项
+     * 加载时间提前一个刷新间隔，首次命中即返回配置并触发后台重新校验；不关联同步版本
+     *
+     * @param config 商户配置
+     * @param apiConfig API配置
+     * @param refreshAfterNanos 刷新间隔
+     * @return 已过刷新间隔的缓存项
+     */
+    public static <T> MerchantConfigEntry<T> restored(T config, ApiConfigDTO apiConfig, long refreshAfterNanos) {
+        return new MerchantConfigEntry<>(config, apiConfig, NO_VERSION, System.nanoTime() - refreshAfterNanos,
+                refreshAfterNanos);
+    }
+
+    /**
+     * 是否已超过刷新间隔
+     *
+     * @param now 当前时间（System.nanoTime）
+     * @param refreshAfterNanos 刷新间隔
+     * @return 超过刷新间隔返回true
+     */
+    public boolean isStale(long now, long refreshAfterNanos) {
+        return now - loadedAt >= refreshAfterNanos;
+    }
+
+    /**
+     * 占用本轮刷新
+     * 同一时刻只有一个请求能占用成功，刷新失败后需再等待一个刷新间隔才会重试
+     *
+     * @param now 当前时间（System.nanoTime）
+     * @param refreshAfterNanos 刷新间隔
+     * @return 占用成功返回true
+     */
+    public boolean tryStartRefresh(long now, long refreshAfterNanos) {
+        long next = nextRefreshAt.get();
+        return now - next >= 0 && nextRefreshAt.compareAndSet(next, now + refreshAfterNanos);
+    }
+}
@@ -0,0 +1,128 @@
+package com.sphere.application.service;
+
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.JWTPayload;
+import cn.hutool.jwt.JWTUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sphere.application.dto.JwtTokenDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT令牌校验服务
+ * 同一令牌在有效期内会被重复使用，校验通过的令牌按令牌哈希缓存，
+ * 缓存在令牌自身的exp到期时失效
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class JwtTokenService {
+
+    /**
+     * 签名密钥，启动时计算一次
+     */
+    private static final byte[] JWT_KEY = SecureUtil.sha256("sphere").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 缓存最大令牌数
+     */
+    private static final int CACHE_MAXIMUM_SIZE = 50000;
+
+    /**
+     * 单个令牌最长缓存时间（毫秒），用于未携带exp的令牌
+     */
+    private static final long CACHE_MAX_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * 已验证令牌缓存
+     */
+    private final Cache<String, JwtTokenDTO> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(CACHE_MAXIMUM_SIZE)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+
+    /**
+     * 校验令牌签名
+     *
+     * @param token JWT令牌
+     * @return 校验通过返回令牌声明，校验失败返回null
+     */
+    public JwtTokenDTO verify(String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+
+        String tokenHash = SecureUtil.sha256(token);
+        JwtTokenDTO cached = verifiedTokens.getIfPresent(tokenHash);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+
+        JWT jwt = JWTUtil.parseToken(token);
+        if (!jwt.setKey(JWT_KEY).verify()) {
+            return null;
+        }
+
+        JwtTokenDTO verified = new JwtTokenDTO()
+                .setClaims(Collections.unmodifiableMap(jwt.getPayloads()))
+                .setExpiresAt(expiresAt(jwt));
+        verifiedTokens.put(tokenHash, verified);
+        return verified;
+    }
+
+    /**
+     * 已验证令牌缓存，用于监控指标绑定
+     *
+     * @return 令牌缓存
+     */
+    public Cache<String, JwtTokenDTO> getCache() {
+        return verifiedTokens;
+    }
+
+    /**
+     * 计算缓存到期时间
+     * 取令牌exp与最长缓存时间中较早者
+     */
+    private long expiresAt(JWT jwt) {
+        long maxExpiresAt = System.currentTimeMillis() + CACHE_MAX_TTL_MILLIS;
+        Object exp = jwt.getPayload(JWTPayload.EXPIRES_AT);
+        if (exp instanceof Number number) {
+            return Math.min(TimeUnit.SECONDS.toMillis(number.longValue()), maxExpiresAt);
+        }
+        return maxExpiresAt;
+    }
+
+    /**
+     * 按令牌到期时间失效
+     */
+    private static class TokenExpiry implements Expiry<String, JwtTokenDTO> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtTokenDTO value, long currentTime) {
+            long remainingMillis = value.getExpiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtTokenDTO value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtTokenDTO value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
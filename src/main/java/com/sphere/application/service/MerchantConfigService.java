@@ -1,27 +1,65 @@
 package com.sphere.application.service;
 
-import cn.hutool.json.JSONUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.sphere.application.dto.ApiConfigDTO;
+import com.sphere.application.dto.MerchantConfigEntry;
 import com.sphere.common.constants.GatewayConstant;
-import com.sphere.infrastructure.cache.LocalCacheService;
+import com.sphere.common.utils.SignUtil;
+import com.sphere.infrastructure.cache.EstimatedSizeWeigher;
+import com.sphere.infrastructure.cache.MerchantConfigCacheProperties;
+import com.sphere.infrastructure.cache.MicroBatchLoader;
+import com.sphere.infrastructure.cache.OffHeapCredentialStore;
 import com.sphere.infrastructure.integration.payment.PaymentServiceApi;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigChangesDTO;
 import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
 import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
 import com.sphere.infrastructure.integration.payment.param.MerchantIdParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantIdsParam;
 import com.sphere.api.vo.Result;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 商户配置服务
  * 负责管理商户的配置信息，包括生产环境和沙箱环境
  * 提供配置的缓存管理和远程获取功能
  *
+ * 缓存策略：
+ * 1. 超过刷新间隔的配置继续返回，同时由一个请求触发后台刷新
+ * 2. 刷新失败时继续使用旧配置，超过最大过期时间或凭证到期后淘汰
+ * 3. 远程确认不存在或已停用的商户写入独立的未知商户缓存，有效期内直接拒绝，不再回源
+ * 4. 增量同步的变更按版本写入，较早发起的加载不会覆盖较新的配置
+ * 5. 各处理结果分别计数，用于监控指标
+ * 6. 开启堆外凭证存储时，请求校验用到的凭证字段同时写入堆外内存，查询凭证优先读取堆外存储，
+ *    堆内缓存只保留最近访问的完整配置
+ * 7. 不同商户的未命中在短时间内合并为一次批量查询，同一商户的并发未命中共享同一次加载
+ *
  * @author sphere
  * @since 1.0.0
  */
@@ -30,20 +68,207 @@ import java.util.Optional;
 public class MerchantConfigService {
 
     /**
-     * 缓存过期时间（秒）
+     * 缓存名称
      */
-    private static final int CACHE_EXPIRE_SECONDS = 60;
+    public static final String CACHE_NAME = "merchant_config";
 
     /**
-     * 缓存名称
+     * 未知商户缓存名称
      */
-    private static final String CACHE_NAME = "merchant_config";
+    public static final String NEGATIVE_CACHE_NAME = "merchant_config_negative";
+
+    /**
+     * 缓存处理结果
+     */
+    public enum CacheOutcome {
+        /**
+         * 命中且未超过刷新间隔
+         */
+        HIT,
+        /**
+         * 命中但已超过刷新间隔，返回旧配置
+         */
+        STALE_HIT,
+        /**
+         * 未命中，同步远程加载
+         */
+        MISS,
+        /**
+         * 同步远程加载失败
+         */
+        LOAD_FAILURE,
+        /**
+         * 后台刷新成功
+         */
+        REFRESH_SUCCESS,
+        /**
+         * 后台刷新失败，继续使用旧配置
+         */
+        REFRESH_FAILURE,
+        /**
+         * 命中未知商户缓存，直接拒绝
+         */
+        NEGATIVE_HIT,
+        /**
+         * 远程确认商户不存在或已停用，写入未知商户缓存
+         */
+        UNKNOWN_MERCHANT
+    }
 
     @Resource
     PaymentServiceApi paymentServiceApi;
 
     @Resource
-    LocalCacheService localCacheService;
+    MerchantConfigCacheProperties cacheProperties;
+
+    /**
+     * 增量同步服务，同步服务依赖本服务写入缓存，延迟注入避免循环依赖
+     */
+    @Lazy
+    @Resource
+    MerchantConfigSyncService merchantConfigSyncService;
+
+    /**
+     * 商户配置缓存
+     * 直接缓存已转换的配置对象，命中时不做反序列化；在最大过期时间和凭证到期时间中较早的时间淘汰
+     */
+    private Cache<String, MerchantConfigEntry<?>> merchantConfigs;
+
+    /**
+     * 未知商户缓存
+     * 与商户配置缓存分开，使用独立的容量上限；记录确认未知时的同步版本，
+     * 版本更低的加载结果不能写入，远程确认的未知商户使用较短的有效期
+     */
+    private Cache<String, Tombstone> unknownMerchants;
+
+    /**
+     * 堆外凭证存储，未开启时为null
+     */
+    private OffHeapCredentialStore credentialStore;
+
+    /**
+     * 堆外凭证定期清理任务，未开启堆外存储时为null
+     */
+    private Disposable credentialSweep;
+
+    /**
+     * 生产环境未命中合并加载，未开启时为null
+     */
+    private MicroBatchLoader<String, MerchantConfigDTO> productionBatchLoader;
+
+    /**
+     * 沙箱环境未命中合并加载，未开启时为null
+     */
+    private MicroBatchLoader<String, MerchantSandboxConfigDTO> sandboxBatchLoader;
+
+    /**
+     * 刷新间隔（纳秒）
+     */
+    private long refreshAfterNanos;
+
+    /**
+     * 刷新间隔（毫秒），用于堆外凭证存储
+     */
+    private long refreshAfterMillis;
+
+    /**
+     * 最大过期时间（毫秒）
+     */
+    private long maxStalenessMillis;
+
+    /**
+     * 同步正常时的最大过期时间（毫秒），未开启增量同步时与最大过期时间相同
+     */
+    private long syncedMaxStalenessMillis;
+
+    /**
+     * 同步最大落后时间（秒）
+     */
+    private double maxSyncLagSeconds;
+
+    /**
+     * 进行中的远程加载
+     * 同一缓存键的并发未命中共享同一次远程调用，加载结束后移除
+     */
+    private final Map<String, Mono<?>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 生产环境已同步的版本
+     */
+    private final AtomicLong productionVersion = new AtomicLong(MerchantConfigEntry.NO_VERSION);
+
+    /**
+     * 沙箱环境已同步的版本
+     */
+    private final AtomicLong sandboxVersion = new AtomicLong(MerchantConfigEntry.NO_VERSION);
+
+    /**
+     * 各处理结果计数
+     */
+    private final Map<CacheOutcome, LongAdder> outcomes = new EnumMap<>(CacheOutcome.class);
+
+    @PostConstruct
+    public void init() {
+        for (CacheOutcome outcome : CacheOutcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+        refreshAfterNanos = cacheProperties.getRefreshAfterWrite().toNanos();
+        refreshAfterMillis = cacheProperties.getRefreshAfterWrite().toMillis();
+        maxStalenessMillis = cacheProperties.getMaxStaleness().toMillis();
+        MerchantConfigCacheProperties.Sync sync = cacheProperties.getSync();
+        syncedMaxStalenessMillis = sync.isEnabled() ?
+            Math.max(maxStalenessMillis, sync.getMaxStaleness().toMillis()) : maxStalenessMillis;
+        maxSyncLagSeconds = sync.getMaxLag().toMillis() / 1000d;
+        // 缓存按可能的最长时间过期，同步异常时由读取按当前的最大过期时间判断
+        Caffeine<String, MerchantConfigEntry<?>> builder = Caffeine.newBuilder()
+                .expireAfter(new CredentialExpiry(Duration.ofMillis(syncedMaxStalenessMillis),
+                        cacheProperties.getRefreshAfterWrite()))
+                .removalListener(this::onConfigRemoved)
+                .recordStats();
+        MerchantConfigCacheProperties.OffHeap offHeap = cacheProperties.getOffHeap();
+        if (offHeap.isEnabled()) {
+            credentialStore = new OffHeapCredentialStore(offHeap.getChunkSize(), offHeap.getInitialCapacity());
+            builder.maximumSize(offHeap.getHeapMaximumSize());
+            credentialSweep = Flux.interval(offHeap.getSweepInterval(), offHeap.getSweepInterval(),
+                            Schedulers.boundedElastic())
+                    .onBackpressureDrop()
+                    .subscribe(tick -> sweepCredentials(),
+                            error -> log.error("堆外凭证清理任务异常终止", error));
+            log.info("商户凭证堆外存储开启 - 数据块大小: {}, 初始索引容量: {}, 堆内缓存最大条数: {}, 清理间隔: {}",
+                    offHeap.getChunkSize(), offHeap.getInitialCapacity(), offHeap.getHeapMaximumSize(),
+                    offHeap.getSweepInterval());
+        } else if (Objects.nonNull(cacheProperties.getMaximumWeight())) {
+            builder.maximumWeight(cacheProperties.getMaximumWeight()).weigher(MerchantConfigService::weigh);
+        } else {
+            builder.maximumSize(cacheProperties.getMaximumSize());
+        }
+        merchantConfigs = builder.build();
+        MerchantConfigCacheProperties.Negative negative = cacheProperties.getNegative();
+        unknownMerchants = Caffeine.newBuilder()
+                .maximumSize(negative.getMaximumSize())
+                .expireAfter(new TombstoneExpiry(negative.getTtl(), cacheProperties.getRefreshAfterWrite()))
+                .recordStats()
+                .<String, Tombstone>build();
+        MerchantConfigCacheProperties.Batch batch = cacheProperties.getBatch();
+        if (batch.isEnabled()) {
+            productionBatchLoader = new MicroBatchLoader<>(CACHE_NAME, this::fetchMerchantConfigs,
+                    this::fetchMerchantConfig, batch.getMaxSize(), batch.getMaxDelay());
+            sandboxBatchLoader = new MicroBatchLoader<>(CACHE_NAME + "_sandbox", this::fetchSandboxMerchantConfigs,
+                    this::fetchSandboxMerchantConfig, batch.getMaxSize(), batch.getMaxDelay());
+            log.info("商户配置未命中合并加载开启 - 最长等待时间: {}, 最大条数: {}",
+                    batch.getMaxDelay(), batch.getMaxSize());
+        }
+        log.info("商户配置缓存初始化 - 刷新间隔: {}, 最大过期时间: {}, 同步正常时最大过期时间: {}, 最大条数: {}, 未知商户缓存时间: {}",
+                cacheProperties.getRefreshAfterWrite(), cacheProperties.getMaxStaleness(),
+                Duration.ofMillis(syncedMaxStalenessMillis), cacheProperties.getMaximumSize(), negative.getTtl());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (Objects.nonNull(credentialSweep)) {
+            credentialSweep.dispose();
+        }
+    }
 
     /**
      * 获取商户配置信息
@@ -52,15 +277,35 @@ public class MerchantConfigService {
      *
      * @param merchantId 商户ID
      * @param hostName 主机名，用于判断环境
-     * @return 商户配置信息
+     * @return 商户配置信息，商户不存在或已停用时为空
      */
     public Mono<ApiConfigDTO> getApiConfigDTO(String merchantId, String hostName) {
         log.debug("开始获取商户配置 - 商户ID: {}, 主机名: {}", merchantId, hostName);
         boolean isSandbox = hostName.contains(GatewayConstant.SANDBOX);
 
-        return isSandbox ? 
-            getSandboxMerchantConfigDTO(merchantId).map(this::convertToApiConfigDTO) :
-            getMerchantConfigDTO(merchantId).map(this::convertToApiConfigDTO);
+        if (isSandbox) {
+            String cacheKey = GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId;
+            Supplier<Mono<MerchantConfigEntry<MerchantSandboxConfigDTO>>> loader =
+                () -> getSandboxConfigFromRemote(merchantId);
+            ApiConfigDTO credential = getFromCredentialStore(cacheKey, loader);
+            if (Objects.nonNull(credential)) {
+                return Mono.just(credential);
+            }
+            MerchantConfigEntry<MerchantSandboxConfigDTO> entry = getFromCache(cacheKey, loader);
+            return Objects.nonNull(entry) ? entry.getApiConfigMono() :
+                loadOnMiss(cacheKey, loader).map(MerchantConfigEntry::getApiConfig);
+        }
+
+        String cacheKey = GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId;
+        Supplier<Mono<MerchantConfigEntry<MerchantConfigDTO>>> loader =
+            () -> getProductionConfigFromRemote(merchantId);
+        ApiConfigDTO credential = getFromCredentialStore(cacheKey, loader);
+        if (Objects.nonNull(credential)) {
+            return Mono.just(credential);
+        }
+        MerchantConfigEntry<MerchantConfigDTO> entry = getFromCache(cacheKey, loader);
+        return Objects.nonNull(entry) ? entry.getApiConfigMono() :
+            loadOnMiss(cacheKey, loader).map(MerchantConfigEntry::getApiConfig);
     }
 
     /**
@@ -68,15 +313,18 @@ public class MerchantConfigService {
      * 优先从缓存获取，缓存不存在则从远程服务获取
      *
      * @param merchantId 商户ID
-     * @return 沙箱环境商户配置
+     * @return 沙箱环境商户配置，商户不存在或已停用时为空
      */
     public Mono<MerchantSandboxConfigDTO> getSandboxMerchantConfigDTO(String merchantId) {
         String cacheKey = GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId;
         log.debug("获取沙箱商户配置 - 商户ID: {}, 缓存键: {}", merchantId, cacheKey);
 
         // 从缓存获取
-        return getFromCache(cacheKey, MerchantSandboxConfigDTO.class)
-            .switchIfEmpty(getSandboxConfigFromRemote(merchantId));
+        Supplier<Mono<MerchantConfigEntry<MerchantSandboxConfigDTO>>> loader =
+            () -> getSandboxConfigFromRemote(merchantId);
+        MerchantConfigEntry<MerchantSandboxConfigDTO> entry = getFromCache(cacheKey, loader);
+        return Objects.nonNull(entry) ? entry.getConfigMono() :
+            loadOnMiss(cacheKey, loader).map(MerchantConfigEntry::getConfig);
     }
 
     /**
@@ -84,36 +332,631 @@ public class MerchantConfigService {
      * 优先从缓存获取，缓存不存在则从远程服务获取
      *
      * @param merchantId 商户ID
-     * @return 生产环境商户配置
+     * @return 生产环境商户配置，商户不存在或已停用时为空
      */
     public Mono<MerchantConfigDTO> getMerchantConfigDTO(String merchantId) {
         String cacheKey = GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId;
         log.debug("获取生产环境商户配置 - 商户ID: {}, 缓存键: {}", merchantId, cacheKey);
 
         // 从缓存获取
-        return getFromCache(cacheKey, MerchantConfigDTO.class)
-            .switchIfEmpty(getProductionConfigFromRemote(merchantId));
+        Supplier<Mono<MerchantConfigEntry<MerchantConfigDTO>>> loader =
+            () -> getProductionConfigFromRemote(merchantId);
+        MerchantConfigEntry<MerchantConfigDTO> entry = getFromCache(cacheKey, loader);
+        return Objects.nonNull(entry) ? entry.getConfigMono() :
+            loadOnMiss(cacheKey, loader).map(MerchantConfigEntry::getConfig);
+    }
+
+    /**
+     * 写入沙箱环境商户配置
+     * 用于批量预热等不经过单个查询的场景
+     *
+     * @param merchantId 商户ID
+     * @param config 沙箱商户配置
+     * @param version 获取配置前已同步的版本
+     * @return 缓存项，商户已在更高版本被删除时返回null
+     */
+    public MerchantConfigEntry<MerchantSandboxConfigDTO> putSandboxMerchantConfig(String merchantId,
+                                                                                  MerchantSandboxConfigDTO config,
+                                                                                  long version) {
+        return put(GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId,
+            new MerchantConfigEntry<>(config, convertToApiConfigDTO(config), version, refreshAfterNanos));
+    }
+
+    /**
+     * 写入生产环境商户配置
+     * 用于批量预热等不经过单个查询的场景
+     *
+     * @param merchantId 商户ID
+     * @param config 商户配置
+     * @param version 获取配置前已同步的版本
+     * @return 缓存项，商户已在更高版本被删除时返回null
+     */
+    public MerchantConfigEntry<MerchantConfigDTO> putMerchantConfig(String merchantId, MerchantConfigDTO config,
+                                                                    long version) {
+        return put(GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId,
+            new MerchantConfigEntry<>(config, convertToApiConfigDTO(config), version, refreshAfterNanos));
+    }
+
+    /**
+     * 已同步的版本
+     * 获取配置前读取，写入时与缓存中的版本比较，避免较早发起的加载覆盖增量同步写入的配置
+     *
+     * @param sandbox 是否沙箱环境
+     * @return 已同步的版本，未确定同步基线时为 {@link MerchantConfigEntry#NO_VERSION}
+     */
+    public long syncedVersion(boolean sandbox) {
+        return (sandbox ? sandboxVersion : productionVersion).get();
+    }
+
+    /**
+     * 应用生产环境商户配置增量变更
+     *
+     * @param changes 增量变更
+     * @return 应用的变更条数
+     */
+    public int applyMerchantConfigChanges(MerchantConfigChangesDTO<MerchantConfigDTO> changes) {
+        return applyChanges(changes, productionVersion, GatewayConstant.CACHE_MERCHANT_CONFIG,
+            MerchantConfigDTO::getMerchantId,
+            config -> new MerchantConfigEntry<>(config, convertToApiConfigDTO(config), changes.getVersion(),
+                refreshAfterNanos));
+    }
+
+    /**
+     * 应用沙箱环境商户配置增量变更
+     *
+     * @param changes 增量变更
+     * @return 应用的变更条数
+     */
+    public int applySandboxMerchantConfigChanges(MerchantConfigChangesDTO<MerchantSandboxConfigDTO> changes) {
+        return applyChanges(changes, sandboxVersion, GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG,
+            MerchantSandboxConfigDTO::getMerchantId,
+            config -> new MerchantConfigEntry<>(config, convertToApiConfigDTO(config), changes.getVersion(),
+                refreshAfterNanos));
+    }
+
+    /**
+     * 从快照恢复生产环境商户配置
+     * 仅在缓存中不存在时写入，恢复的配置首次命中时在后台重新加载；
+     * 开启堆外凭证存储时只恢复凭证
+     *
+     * @param config 商户配置
+     * @return 写入返回true
+     */
+    public boolean restoreMerchantConfig(MerchantConfigDTO config) {
+        String cacheKey = GatewayConstant.CACHE_MERCHANT_CONFIG + config.getMerchantId();
+        if (Objects.nonNull(credentialStore)) {
+            return restoreCredential(cacheKey, convertToApiConfigDTO(config));
+        }
+        return merchantConfigs.asMap().putIfAbsent(cacheKey,
+            MerchantConfigEntry.restored(config, convertToApiConfigDTO(config), refreshAfterNanos)) == null;
+    }
+
+    /**
+     * 从快照恢复沙箱环境商户配置
+     * 仅在缓存中不存在时写入，恢复的配置首次命中时在后台重新加载；
+     * 开启堆外凭证存储时只恢复凭证
+     *
+     * @param config 沙箱商户配置
+     * @return 写入返回true
+     */
+    public boolean restoreSandboxMerchantConfig(MerchantSandboxConfigDTO config) {
+        String cacheKey = GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + config.getMerchantId();
+        if (Objects.nonNull(credentialStore)) {
+            return restoreCredential(cacheKey, convertToApiConfigDTO(config));
+        }
+        return merchantConfigs.asMap().putIfAbsent(cacheKey,
+            MerchantConfigEntry.restored(config, convertToApiConfigDTO(config), refreshAfterNanos)) == null;
+    }
+
+    /**
+     * 清除商户的生产和沙箱配置缓存，以及未知商户缓存
+     *
+     * @param merchantId 商户ID
+     * @return 清除的商户配置条数
+     */
+    public int evictMerchant(String merchantId) {
+        int evicted = 0;
+        for (String cacheKey : List.of(GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId,
+            GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId)) {
+            boolean removed = merchantConfigs.asMap().remove(cacheKey) != null;
+            if (Objects.nonNull(credentialStore)) {
+                removed |= removeCredential(cacheKey, Long.MAX_VALUE);
+            }
+            evicted += removed ? 1 : 0;
+            unknownMerchants.invalidate(cacheKey);
+        }
+        return evicted;
+    }
+
+    /**
+     * 商户配置缓存，用于监控指标绑定
+     *
+     * @return 商户配置缓存
+     */
+    public Cache<String, MerchantConfigEntry<?>> getCache() {
+        return merchantConfigs;
+    }
+
+    /**
+     * 堆外凭证存储，用于监控指标绑定和快照
+     *
+     * @return 堆外凭证存储，未开启时返回null
+     */
+    public OffHeapCredentialStore getCredentialStore() {
+        return credentialStore;
+    }
+
+    /**
+     * 未命中合并加载，用于监控指标绑定
+     *
+     * @param sandbox 是否沙箱环境
+     * @return 合并加载，未开启时返回null
+     */
+    public MicroBatchLoader<String, ?> getBatchLoader(boolean sandbox) {
+        return sandbox ? sandboxBatchLoader : productionBatchLoader;
+    }
+
+    /**
+     * 未知商户缓存，用于监控指标绑定
+     *
+     * @return 未知商户缓存
+     */
+    public Cache<String, ?> getNegativeCache() {
+        return unknownMerchants;
+    }
+
+    /**
+     * 获取处理结果计数
+     *
+     * @param outcome 处理结果
+     * @return 累计次数
+     */
+    public long outcomeCount(CacheOutcome outcome) {
+        return outcomes.get(outcome).sum();
     }
 
     /**
      * 从缓存获取配置
+     * 缓存键前缀区分环境，同一键下的配置类型固定；
+     * 配置超过刷新间隔时仍然返回，并由首个请求发起后台刷新；
+     * 超过当前最大过期时间（同步中断后缩短）的配置移除后按未命中处理
      *
      * @param cacheKey 缓存键
-     * @param clazz 目标类型
-     * @return 配置信息
+     * @param loader 远程加载
+     * @return 缓存项，不存在时返回null
      */
-    private <T> Mono<T> getFromCache(String cacheKey, Class<T> clazz) {
-        Object obj = localCacheService.get(CACHE_NAME, cacheKey);
-        T configDTO = Optional.ofNullable(obj)
-            .map(Object::toString)
-            .map(e -> JSONUtil.toBean(e, clazz))
-            .orElse(null);
+    @SuppressWarnings("unchecked")
+    private <T> MerchantConfigEntry<T> getFromCache(String cacheKey, Supplier<Mono<MerchantConfigEntry<T>>> loader) {
+        MerchantConfigEntry<T> entry = (MerchantConfigEntry<T>) merchantConfigs.getIfPresent(cacheKey);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
 
-        if (Objects.nonNull(configDTO)) {
-            log.debug("从缓存获取配置成功 - 缓存键: {}", cacheKey);
-            return Mono.just(configDTO);
+        long now = System.nanoTime();
+        if (now - entry.getLoadedAt() >= TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis(cacheKey))) {
+            merchantConfigs.asMap().remove(cacheKey, entry);
+            return null;
         }
-        return Mono.empty();
+        if (!entry.isStale(now, refreshAfterNanos)) {
+            record(CacheOutcome.HIT);
+            return entry;
+        }
+
+        record(CacheOutcome.STALE_HIT);
+        if (entry.tryStartRefresh(now, refreshAfterNanos)) {
+            refreshInBackground(cacheKey, loader);
+        }
+        return entry;
+    }
+
+    /**
+     * 从堆外凭证存储获取凭证
+     * 刷新策略与堆内缓存相同：超过刷新间隔或凭证已到期时仍然返回，并由首个请求发起后台刷新；
+     * 超过最大过期时间，或已到期且超过刷新间隔的凭证移除后按未命中处理
+     *
+     * @param cacheKey 缓存键
+     * @param loader 远程加载
+     * @return 凭证，未开启或不存在时返回null
+     */
+    private <T> ApiConfigDTO getFromCredentialStore(String cacheKey, Supplier<Mono<MerchantConfigEntry<T>>> loader) {
+        if (Objects.isNull(credentialStore)) {
+            return null;
+        }
+        OffHeapCredentialStore.Credential credential = credentialStore.get(cacheKey);
+        if (Objects.isNull(credential)) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - credential.getStoredAt() >= maxStalenessMillis(cacheKey)) {
+            removeCredential(cacheKey, credential.getVersion());
+            return null;
+        }
+
+        ApiConfigDTO apiConfig = credential.getApiConfig();
+        boolean expired = Objects.nonNull(apiConfig.getExpiryDate())
+            && apiConfig.getExpiryDate().isBefore(LocalDateTime.now());
+        if (expired && now - credential.getStoredAt() >= refreshAfterMillis) {
+            removeCredential(cacheKey, credential.getVersion());
+            return null;
+        }
+        if (now - credential.getStoredAt() < refreshAfterMillis && !expired) {
+            record(CacheOutcome.HIT);
+            return apiConfig;
+        }
+
+        record(CacheOutcome.STALE_HIT);
+        if (credentialStore.tryStartRefresh(cacheKey, now, refreshAfterMillis)) {
+            refreshInBackground(cacheKey, loader);
+        }
+        return apiConfig;
+    }
+
+    /**
+     * 清理超过最大过期时间，或已到期且超过刷新间隔的堆外凭证
+     * 读取时只能淘汰被访问到的凭证，不再访问的商户由此定期删除，并释放其密钥的签名引擎；
+     * 先按两个环境中较短的最大过期时间筛选，再按各自环境的最大过期时间删除
+     */
+    private void sweepCredentials() {
+        long now = System.currentTimeMillis();
+        long storedBefore = now - Math.min(maxStalenessMillis(false), maxStalenessMillis(true));
+        long expiredStoredBefore = now - refreshAfterMillis;
+        LocalDateTime dateTime = LocalDateTime.now();
+        int removed = 0;
+        for (String cacheKey : credentialStore.keysStoredBefore(storedBefore, expiredStoredBefore, dateTime)) {
+            OffHeapCredentialStore.Credential credential = credentialStore.removeIfStoredBefore(cacheKey,
+                now - maxStalenessMillis(cacheKey), expiredStoredBefore, dateTime);
+            if (Objects.nonNull(credential)) {
+                removed++;
+                releaseSecret(cacheKey, credential.getApiConfig().getMerchantSecret());
+            }
+        }
+        if (removed > 0) {
+            log.info("堆外凭证清理完成 - 删除条数: {}, 剩余条数: {}", removed, credentialStore.size());
+        }
+    }
+
+    /**
+     * 缓存键所在环境当前的最大过期时间
+     */
+    private long maxStalenessMillis(String cacheKey) {
+        return maxStalenessMillis(cacheKey.startsWith(GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG));
+    }
+
+    /**
+     * 当前的最大过期时间
+     * 开启增量同步且该环境同步落后不超过最大落后时间时使用同步正常时的最大过期时间，
+     * 同步尚未成功、已中断或未同步该环境时使用基础的最大过期时间
+     *
+     * @param sandbox 是否沙箱环境
+     * @return 最大过期时间（毫秒）
+     */
+    private long maxStalenessMillis(boolean sandbox) {
+        if (syncedMaxStalenessMillis == maxStalenessMillis) {
+            return maxStalenessMillis;
+        }
+        double lagSeconds = merchantConfigSyncService.lagSeconds(sandbox);
+        return lagSeconds >= 0 && lagSeconds <= maxSyncLagSeconds ? syncedMaxStalenessMillis : maxStalenessMillis;
+    }
+
+    /**
+     * 从快照恢复凭证到堆外存储
+     * 写入时间提前一个刷新间隔，首次命中时在后台重新加载
+     */
+    private boolean restoreCredential(String cacheKey, ApiConfigDTO apiConfig) {
+        if (Objects.nonNull(credentialStore.get(cacheKey))) {
+            return false;
+        }
+        return storeCredential(cacheKey, apiConfig, MerchantConfigEntry.NO_VERSION,
+            System.currentTimeMillis() - refreshAfterMillis);
+    }
+
+    /**
+     * 写入堆外凭证，密钥变化时释放旧密钥的签名引擎
+     */
+    private boolean storeCredential(String cacheKey, ApiConfigDTO apiConfig, long version, long storedAt) {
+        String previousSecret = storedSecret(cacheKey);
+        boolean stored = credentialStore.put(cacheKey, apiConfig, version, storedAt, refreshAfterMillis);
+        releaseSecret(cacheKey, previousSecret);
+        return stored;
+    }
+
+    /**
+     * 移除不高于指定版本的堆外凭证，并释放其密钥的签名引擎
+     */
+    private boolean removeCredential(String cacheKey, long version) {
+        String previousSecret = storedSecret(cacheKey);
+        boolean removed = credentialStore.remove(cacheKey, version);
+        if (removed) {
+            releaseSecret(cacheKey, previousSecret);
+        }
+        return removed;
+    }
+
+    private String storedSecret(String cacheKey) {
+        OffHeapCredentialStore.Credential credential = credentialStore.get(cacheKey);
+        return Objects.isNull(credential) ? null : credential.getApiConfig().getMerchantSecret();
+    }
+
+    /**
+     * 商户配置被替换、删除或过期时释放旧密钥的签名引擎
+     * 容量淘汰不释放：商户仍然有效，引擎按空闲时间自然淘汰
+     */
+    private void onConfigRemoved(String cacheKey, MerchantConfigEntry<?> entry, RemovalCause cause) {
+        if (Objects.nonNull(entry) && cause != RemovalCause.SIZE && cause != RemovalCause.COLLECTED) {
+            releaseSecret(cacheKey, entry.getApiConfig().getMerchantSecret());
+        }
+    }
+
+    /**
+     * 释放不再使用的密钥的签名引擎
+     * 缓存中当前的配置或凭证仍使用该密钥时保留，已轮换或吊销的密钥不再保留已初始化的引擎
+     */
+    private void releaseSecret(String cacheKey, String secret) {
+        if (StringUtils.isBlank(secret)) {
+            return;
+        }
+        MerchantConfigEntry<?> current = merchantConfigs.asMap().get(cacheKey);
+        if (Objects.nonNull(current) && secret.equals(current.getApiConfig().getMerchantSecret())) {
+            return;
+        }
+        if (Objects.nonNull(credentialStore) && secret.equals(storedSecret(cacheKey))) {
+            return;
+        }
+        SignUtil.invalidateHmacEngine(secret);
+    }
+
+    /**
+     * 后台刷新
+     * 失败时保留旧配置，下一个刷新间隔后再次尝试
+     */
+    private <T> void refreshInBackground(String cacheKey, Supplier<Mono<MerchantConfigEntry<T>>> loader) {
+        log.debug("商户配置后台刷新 - 缓存键: {}", cacheKey);
+        loadOnce(cacheKey, loader).subscribe(
+            entry -> record(CacheOutcome.REFRESH_SUCCESS),
+            error -> {
+                record(CacheOutcome.REFRESH_FAILURE);
+                log.warn("商户配置后台刷新失败，继续使用旧配置 - 缓存键: {}, 错误: {}", cacheKey, error.getMessage());
+            });
+    }
+
+    /**
+     * 未命中时同步加载
+     * 未知商户缓存有效期内直接返回空，不回源
+     */
+    private <T> Mono<MerchantConfigEntry<T>> loadOnMiss(String cacheKey,
+                                                       Supplier<Mono<MerchantConfigEntry<T>>> loader) {
+        if (Objects.nonNull(unknownMerchants.getIfPresent(cacheKey))) {
+            record(CacheOutcome.NEGATIVE_HIT);
+            log.debug("命中未知商户缓存 - 缓存键: {}", cacheKey);
+            return Mono.empty();
+        }
+        record(CacheOutcome.MISS);
+        return loadOnce(cacheKey, loader).doOnError(error -> record(CacheOutcome.LOAD_FAILURE));
+    }
+
+    /**
+     * 记录未知商户
+     * 远程成功响应但没有配置或密钥为空时调用，同时移除不高于加载版本的已缓存配置，
+     * 使停用的商户在后台刷新后立即失效；加载期间增量同步写入的更高版本配置保留。
+     * 远程调用失败不视为未知商户
+     *
+     * @param cacheKey 缓存键
+     * @param version 获取配置前已同步的版本
+     * @return 空结果
+     */
+    private <T> Mono<MerchantConfigEntry<T>> markUnknown(String cacheKey, long version) {
+        return Mono.defer(() -> {
+            merchantConfigs.asMap().computeIfPresent(cacheKey,
+                (key, existing) -> existing.getVersion() > version ? existing : null);
+            if (Objects.nonNull(credentialStore)) {
+                removeCredential(cacheKey, version);
+            }
+            addTombstone(cacheKey, new Tombstone(version, false));
+            record(CacheOutcome.UNKNOWN_MERCHANT);
+            log.warn("商户不存在或已停用，写入未知商户缓存 - 缓存键: {}", cacheKey);
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 估算缓存项字节数，原始配置和API配置按字段长度分别计算
+     */
+    private static int weigh(String cacheKey, MerchantConfigEntry<?> entry) {
+        return EstimatedSizeWeigher.INSTANCE.weigh(cacheKey, entry);
+    }
+
+    /**
+     * 未知商户记录
+     *
+     * @param version 确认未知时的同步版本，低于该版本发起的加载结果不能清除该记录
+     * @param removed 是否由增量同步删除；删除记录同时拒绝低于该版本的配置写入
+     */
+    private record Tombstone(long version, boolean removed) {
+    }
+
+    /**
+     * 未知商户缓存过期策略
+     * 远程确认的未知商户按配置的有效期过期；增量同步的删除记录保留一个刷新间隔，
+     * 覆盖删除前发起的远程加载的最长耗时，其间商户恢复时由增量同步以更高版本写入
+     */
+    private static final class TombstoneExpiry implements Expiry<String, Tombstone> {
+
+        private final long unknownNanos;
+
+        private final long removedNanos;
+
+        private TombstoneExpiry(Duration unknownTtl, Duration removedTtl) {
+            this.unknownNanos = unknownTtl.toNanos();
+            this.removedNanos = Math.max(unknownNanos, removedTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Tombstone tombstone, long currentTime) {
+            return tombstone.removed() ? removedNanos : unknownNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Tombstone tombstone, long currentTime, long currentDuration) {
+            return tombstone.removed() ? removedNanos : unknownNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Tombstone tombstone, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 商户配置缓存过期策略
+     * 按最大过期时间和凭证到期时间中较早的时间过期，凭证到期后重新加载以获取续期后的凭证。
+     * 加载时凭证已到期的配置只缓存一个刷新间隔，期间由请求校验在内存中拒绝，
+     * 避免已到期商户的每个请求都回源，也不会让到期凭证在缓存中保留到最大过期时间
+     */
+    private static final class CredentialExpiry implements Expiry<String, MerchantConfigEntry<?>> {
+
+        private final Duration maxStaleness;
+
+        private final Duration refreshAfterWrite;
+
+        private CredentialExpiry(Duration maxStaleness, Duration refreshAfterWrite) {
+            this.maxStaleness = maxStaleness;
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, MerchantConfigEntry<?> entry, long currentTime) {
+            return ttlNanos(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, MerchantConfigEntry<?> entry, long currentTime,
+                                      long currentDuration) {
+            return ttlNanos(entry);
+        }
+
+        @Override
+        public long expireAfterRead(String key, MerchantConfigEntry<?> entry, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+
+        private long ttlNanos(MerchantConfigEntry<?> entry) {
+            LocalDateTime expiryDate = entry.getApiConfig().getExpiryDate();
+            if (Objects.isNull(expiryDate)) {
+                return maxStaleness.toNanos();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (!expiryDate.isAfter(now)) {
+                return Math.min(refreshAfterWrite.toNanos(), maxStaleness.toNanos());
+            }
+            if (expiryDate.isAfter(now.plus(maxStaleness))) {
+                return maxStaleness.toNanos();
+            }
+            return Duration.between(now, expiryDate).toNanos();
+        }
+    }
+
+    /**
+     * 写入缓存
+     * 缓存中已有更高版本的配置时保留原配置；商户已在更高版本被删除时不写入。
+     * 先写入再检查删除记录：删除先于写入时由这里撤回，晚于写入时由删除移除，两种顺序都不会留下旧配置。
+     * 写入生效后才清除不高于该版本的未知商户记录；开启堆外凭证存储时同时写入凭证，同样按版本保留
+     *
+     * @return 生效的缓存项，被删除记录拒绝时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private <T> MerchantConfigEntry<T> put(String cacheKey, MerchantConfigEntry<T> entry) {
+        MerchantConfigEntry<?> current = merchantConfigs.asMap().merge(cacheKey, entry,
+            (existing, fresh) -> existing.getVersion() > fresh.getVersion() ? existing : fresh);
+        if (current != entry) {
+            return (MerchantConfigEntry<T>) current;
+        }
+        if (isRemovedAfter(cacheKey, entry.getVersion())) {
+            merchantConfigs.asMap().remove(cacheKey, entry);
+            log.debug("商户已在更高版本删除，丢弃加载结果 - 缓存键: {}, 版本: {}", cacheKey, entry.getVersion());
+            return null;
+        }
+        if (Objects.nonNull(credentialStore)) {
+            storeCredential(cacheKey, entry.getApiConfig(), entry.getVersion(), System.currentTimeMillis());
+            Tombstone tombstone = unknownMerchants.getIfPresent(cacheKey);
+            if (Objects.nonNull(tombstone) && tombstone.removed() && tombstone.version() > entry.getVersion()) {
+                removeCredential(cacheKey, tombstone.version());
+            }
+        }
+        unknownMerchants.asMap().computeIfPresent(cacheKey,
+            (key, tombstone) -> tombstone.version() > entry.getVersion() ? tombstone : null);
+        return entry;
+    }
+
+    /**
+     * 商户是否已被增量同步在更高版本删除
+     */
+    private boolean isRemovedAfter(String cacheKey, long version) {
+        Tombstone tombstone = unknownMerchants.getIfPresent(cacheKey);
+        return Objects.nonNull(tombstone) && tombstone.removed() && tombstone.version() > version;
+    }
+
+    /**
+     * 写入未知商户记录，已有更高版本的记录时保留原记录
+     */
+    private void addTombstone(String cacheKey, Tombstone tombstone) {
+        unknownMerchants.asMap().merge(cacheKey, tombstone,
+            (existing, fresh) -> existing.version() > fresh.version() ? existing : fresh);
+    }
+
+    /**
+     * 应用增量变更
+     * 每个缓存项原子替换，不会覆盖更高版本的配置；删除或停用的商户写入带版本的删除记录并移除配置，
+     * 删除前发起、删除后返回的加载结果不会再写入。
+     * 整批写入完成后才推进已同步版本，中途失败时下次从原版本重新应用，重复应用结果相同
+     */
+    private <T> int applyChanges(MerchantConfigChangesDTO<T> changes, AtomicLong syncedVersion, String keyPrefix,
+                                 Function<T, String> merchantId,
+                                 Function<T, MerchantConfigEntry<T>> entryFactory) {
+        long version = changes.getVersion();
+        int applied = 0;
+        if (Objects.nonNull(changes.getUpdated())) {
+            for (T config : changes.getUpdated()) {
+                put(keyPrefix + merchantId.apply(config), entryFactory.apply(config));
+                applied++;
+            }
+        }
+        if (Objects.nonNull(changes.getRemoved())) {
+            for (String removed : changes.getRemoved()) {
+                String cacheKey = keyPrefix + removed;
+                // 先写入删除记录再移除配置，并发写入的旧版本配置由写入方撤回
+                addTombstone(cacheKey, new Tombstone(version, true));
+                merchantConfigs.asMap().computeIfPresent(cacheKey,
+                    (key, existing) -> existing.getVersion() > version ? existing : null);
+                if (Objects.nonNull(credentialStore)) {
+                    removeCredential(cacheKey, version);
+                }
+                applied++;
+            }
+        }
+        syncedVersion.accumulateAndGet(version, Math::max);
+        return applied;
+    }
+
+    private void record(CacheOutcome outcome) {
+        outcomes.get(outcome).increment();
+    }
+
+    /**
+     * 合并同一缓存键的并发加载
+     * 已有进行中的加载时直接订阅其结果，否则发起新的加载；
+     * 加载成功、失败或取消后移除，失败不会被后续请求复用
+     *
+     * @param cacheKey 缓存键
+     * @param loader 远程加载
+     * @return 配置信息
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> loadOnce(String cacheKey, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> (Mono<T>) inFlightLoads.computeIfAbsent(cacheKey, key -> loader.get()
+                .doFinally(signal -> inFlightLoads.remove(key))
+                .cache()));
     }
 
     /**
@@ -122,18 +965,18 @@ public class MerchantConfigService {
      * @param merchantId 商户ID
      * @return 沙箱环境配置
      */
-    private Mono<MerchantSandboxConfigDTO> getSandboxConfigFromRemote(String merchantId) {
-        MerchantIdParam param = new MerchantIdParam();
-        param.setMerchantId(merchantId);
-
-        return paymentServiceApi.getSandboxMerchantConfig(param)
-            .map(Result::parse)
-            .map(config -> {
-                String cacheKey = GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId;
-                localCacheService.put(CACHE_NAME, cacheKey, JSONUtil.toJsonStr(config));
-                log.debug("从远程服务获取沙箱配置成功并更新缓存 - 商户ID: {}", merchantId);
-                return config;
-            });
+    private Mono<MerchantConfigEntry<MerchantSandboxConfigDTO>> getSandboxConfigFromRemote(String merchantId) {
+        return Mono.defer(() -> {
+            long version = syncedVersion(true);
+            Mono<MerchantSandboxConfigDTO> remote = Objects.nonNull(sandboxBatchLoader) ?
+                sandboxBatchLoader.load(merchantId) :
+                fetchSandboxMerchantConfig(merchantId);
+            return remote
+                .filter(config -> StringUtils.isNotBlank(config.getMerchantSecret()))
+                .mapNotNull(config -> putSandboxMerchantConfig(merchantId, config, version))
+                .doOnNext(entry -> log.debug("从远程服务获取沙箱配置成功并更新缓存 - 商户ID: {}", merchantId))
+                .switchIfEmpty(markUnknown(GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG + merchantId, version));
+        });
     }
 
     /**
@@ -142,17 +985,92 @@ public class MerchantConfigService {
      * @param merchantId 商户ID
      * @return 生产环境配置
      */
-    private Mono<MerchantConfigDTO> getProductionConfigFromRemote(String merchantId) {
+    private Mono<MerchantConfigEntry<MerchantConfigDTO>> getProductionConfigFromRemote(String merchantId) {
+        return Mono.defer(() -> {
+            long version = syncedVersion(false);
+            Mono<MerchantConfigDTO> remote = Objects.nonNull(productionBatchLoader) ?
+                productionBatchLoader.load(merchantId) :
+                fetchMerchantConfig(merchantId);
+            return remote
+                .filter(config -> StringUtils.isNotBlank(config.getMerchantSecret()))
+                .mapNotNull(config -> putMerchantConfig(merchantId, config, version))
+                .doOnNext(entry -> log.debug("从远程服务获取生产环境配置成功并更新缓存 - 商户ID: {}", merchantId))
+                .switchIfEmpty(markUnknown(GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId, version));
+        });
+    }
+
+    /**
+     * 查询单个商户的生产环境配置
+     *
+     * @param merchantId 商户ID
+     * @return 配置，不存在或已停用时为空
+     */
+    private Mono<MerchantConfigDTO> fetchMerchantConfig(String merchantId) {
         MerchantIdParam param = new MerchantIdParam();
         param.setMerchantId(merchantId);
-
         return paymentServiceApi.getMerchantConfig(param)
-            .map(Result::parse)
-            .map(config -> {
-                String cacheKey = GatewayConstant.CACHE_MERCHANT_CONFIG + merchantId;
-                localCacheService.put(CACHE_NAME, cacheKey, JSONUtil.toJsonStr(config));
-                log.debug("从远程服务获取生产环境配置成功并更新缓存 - 商户ID: {}", merchantId);
-                return config;
+            .flatMap(result -> Mono.justOrEmpty(Result.parse(result)));
+    }
+
+    /**
+     * 查询单个商户的沙箱环境配置
+     *
+     * @param merchantId 商户ID
+     * @return 配置，不存在或已停用时为空
+     */
+    private Mono<MerchantSandboxConfigDTO> fetchSandboxMerchantConfig(String merchantId) {
+        MerchantIdParam param = new MerchantIdParam();
+        param.setMerchantId(merchantId);
+        return paymentServiceApi.getSandboxMerchantConfig(param)
+            .flatMap(result -> Mono.justOrEmpty(Result.parse(result)));
+    }
+
+    /**
+     * 批量查询生产环境配置
+     *
+     * @param merchantIds 商户ID列表
+     * @return 商户ID到配置的映射，不存在或已停用的商户不在结果中
+     */
+    private Mono<Map<String, MerchantConfigDTO>> fetchMerchantConfigs(List<String> merchantIds) {
+        return fetchConfigs(merchantIds, this::fetchMerchantConfig,
+            paymentServiceApi::getMerchantConfigsByIds, MerchantConfigDTO::getMerchantId);
+    }
+
+    /**
+     * 批量查询沙箱环境配置
+     *
+     * @param merchantIds 商户ID列表
+     * @return 商户ID到配置的映射，不存在或已停用的商户不在结果中
+     */
+    private Mono<Map<String, MerchantSandboxConfigDTO>> fetchSandboxMerchantConfigs(List<String> merchantIds) {
+        return fetchConfigs(merchantIds, this::fetchSandboxMerchantConfig,
+            paymentServiceApi::getSandboxMerchantConfigsByIds, MerchantSandboxConfigDTO::getMerchantId);
+    }
+
+    /**
+     * 批量查询配置
+     * 只有一个商户时使用单个查询接口，多个商户时使用批量查询接口；
+     * 批量接口返回的 data 为空时结果为空，由调用方改为逐个查询，不视为整批商户不存在
+     */
+    private <T> Mono<Map<String, T>> fetchConfigs(List<String> merchantIds,
+                                                  Function<String, Mono<T>> single,
+                                                  Function<MerchantIdsParam, Mono<Result<List<T>>>> batch,
+                                                  Function<T, String> merchantId) {
+        if (merchantIds.size() == 1) {
+            return single.apply(merchantIds.get(0))
+                .map(config -> Map.of(merchantIds.get(0), config))
+                .defaultIfEmpty(Map.of());
+        }
+        return batch.apply(new MerchantIdsParam().setMerchantIds(merchantIds))
+            .flatMap(result -> Mono.justOrEmpty(Result.parse(result)))
+            .map(configs -> {
+                Map<String, T> byMerchantId = new HashMap<>(configs.size() * 2);
+                for (T config : configs) {
+                    if (Objects.nonNull(config) && Objects.nonNull(merchantId.apply(config))) {
+                        byMerchantId.put(merchantId.apply(config), config);
+                    }
+                }
+                return byMerchantId;
             });
     }
 
@@ -0,0 +1,202 @@
+package com.sphere.application.service;
+
+import com.sphere.application.dto.MerchantConfigEntry;
+import com.sphere.common.constants.GatewayConstant;
+import com.sphere.infrastructure.cache.MerchantConfigCacheProperties;
+import com.sphere.infrastructure.cache.MerchantConfigSnapshotStore;
+import com.sphere.infrastructure.cache.OffHeapCredentialStore;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 商户配置快照服务
+ * 定期将商户配置缓存写入本地快照文件，停机时再写入一次；
+ * 启动时在接收流量前从快照恢复，恢复的配置首次命中时在后台重新加载，避免重启后集中回源；
+ * 开启堆外凭证存储时，不在堆内缓存中的商户只写入凭证字段
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class MerchantConfigSnapshotService {
+
+    @Resource
+    MerchantConfigService merchantConfigService;
+
+    @Resource
+    MerchantConfigCacheProperties cacheProperties;
+
+    /**
+     * 快照文件，未开启或初始化失败时为null
+     */
+    private MerchantConfigSnapshotStore store;
+
+    /**
+     * 定期写入任务
+     */
+    private Disposable periodicSave;
+
+    /**
+     * 从快照恢复的商户数
+     */
+    private volatile int restored;
+
+    /**
+     * 初始化快照文件并恢复缓存
+     * 快照不存在、过期或损坏时跳过恢复，不影响启动
+     */
+    @PostConstruct
+    public void restore() {
+        MerchantConfigCacheProperties.Snapshot snapshot = cacheProperties.getSnapshot();
+        if (!snapshot.isEnabled()) {
+            log.info("商户配置快照未开启");
+            return;
+        }
+        if (StringUtils.isAnyBlank(snapshot.getPath(), snapshot.getKeyFile())) {
+            log.error("商户配置快照未配置快照路径或密钥文件，不开启快照 - 路径: {}, 密钥文件: {}",
+                    snapshot.getPath(), snapshot.getKeyFile());
+            return;
+        }
+
+        try {
+            store = new MerchantConfigSnapshotStore(Path.of(snapshot.getPath()), Path.of(snapshot.getKeyFile()));
+        } catch (Exception e) {
+            log.error("商户配置快照密钥读取失败，不开启快照 - 密钥文件: {}, 错误: {}",
+                    snapshot.getKeyFile(), e.getMessage());
+            return;
+        }
+
+        try {
+            MerchantConfigSnapshotStore.Snapshot content = store.read();
+            if (Objects.isNull(content)) {
+                log.info("商户配置快照不存在 - 路径: {}", snapshot.getPath());
+                return;
+            }
+
+            long age = System.currentTimeMillis() - content.getCreatedAt();
+            if (age > snapshot.getMaxAge().toMillis()) {
+                log.info("商户配置快照已过期，跳过恢复 - 生成于: {}ms前", age);
+                return;
+            }
+
+            int count = 0;
+            for (MerchantConfigDTO config : content.getProduction()) {
+                count += merchantConfigService.restoreMerchantConfig(config) ? 1 : 0;
+            }
+            for (MerchantSandboxConfigDTO config : content.getSandbox()) {
+                count += merchantConfigService.restoreSandboxMerchantConfig(config) ? 1 : 0;
+            }
+            restored = count;
+            log.info("商户配置快照恢复完成 - 恢复: {}, 生成于: {}ms前", count, age);
+        } catch (Exception e) {
+            log.warn("商户配置快照恢复失败，跳过恢复 - 路径: {}, 错误: {}", snapshot.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * 启动定期写入
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPeriodicSave() {
+        if (Objects.isNull(store)) {
+            return;
+        }
+        Duration interval = cacheProperties.getSnapshot().getInterval();
+        periodicSave = Flux.interval(interval, interval, Schedulers.boundedElastic())
+                .subscribe(tick -> save());
+    }
+
+    /**
+     * 停机前写入最新快照
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (Objects.nonNull(periodicSave)) {
+            periodicSave.dispose();
+        }
+        if (Objects.nonNull(store)) {
+            save();
+        }
+    }
+
+    /**
+     * 写入快照
+     * 缓存为空时不覆盖已有快照
+     */
+    public void save() {
+        List<MerchantConfigDTO> production = new ArrayList<>();
+        List<MerchantSandboxConfigDTO> sandbox = new ArrayList<>();
+        Map<String, MerchantConfigEntry<?>> cached = merchantConfigService.getCache().asMap();
+        for (MerchantConfigEntry<?> entry : cached.values()) {
+            if (entry.getConfig() instanceof MerchantConfigDTO config) {
+                production.add(config);
+            } else if (entry.getConfig() instanceof MerchantSandboxConfigDTO config) {
+                sandbox.add(config);
+            }
+        }
+        OffHeapCredentialStore credentialStore = merchantConfigService.getCredentialStore();
+        if (Objects.nonNull(credentialStore)) {
+            credentialStore.forEach((cacheKey, apiConfig) -> {
+                if (cached.containsKey(cacheKey)) {
+                    return;
+                }
+                if (cacheKey.startsWith(GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG)) {
+                    MerchantSandboxConfigDTO config = new MerchantSandboxConfigDTO();
+                    config.setMerchantId(cacheKey.substring(GatewayConstant.SANDBOX_CACHE_MERCHANT_CONFIG.length()));
+                    config.setMerchantSecret(apiConfig.getMerchantSecret());
+                    config.setPublicKey(apiConfig.getPublicKey());
+                    config.setIpWhiteList(apiConfig.getIpWhiteList());
+                    sandbox.add(config);
+                } else if (cacheKey.startsWith(GatewayConstant.CACHE_MERCHANT_CONFIG)) {
+                    MerchantConfigDTO config = new MerchantConfigDTO();
+                    config.setMerchantId(cacheKey.substring(GatewayConstant.CACHE_MERCHANT_CONFIG.length()));
+                    config.setMerchantSecret(apiConfig.getMerchantSecret());
+                    config.setPublicKey(apiConfig.getPublicKey());
+                    config.setExpiryDate(apiConfig.getExpiryDate());
+                    config.setIpWhiteList(apiConfig.getIpWhiteList());
+                    production.add(config);
+                }
+            });
+        }
+        if (production.isEmpty() && sandbox.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            store.write(production, sandbox);
+            log.debug("商户配置快照写入完成 - 生产: {}, 沙箱: {}, 耗时: {}ms",
+                    production.size(), sandbox.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("商户配置快照写入失败 - 错误: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从快照恢复的商户数
+     *
+     * @return 恢复的商户数
+     */
+    public int getRestored() {
+        return restored;
+    }
+}
@@ -0,0 +1,196 @@
+package com.sphere.application.service;
+
+import com.sphere.api.vo.Result;
+import com.sphere.application.dto.MerchantConfigEntry;
+import com.sphere.infrastructure.cache.MerchantConfigCacheProperties;
+import com.sphere.infrastructure.integration.payment.PaymentServiceApi;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigChangesDTO;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigChangesParam;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 商户配置增量同步服务
+ * 定期从支付服务拉取指定版本之后的商户配置变更并写入缓存，商户配置修改后很快生效，
+ * 同步落后时间正常时缓存使用较长的最大过期时间，减少过期后的回源
+ *
+ * 同步流程：
+ * 1. 首次同步只获取当前版本作为基线，预热在确定基线后开始，预热期间的变更由后续同步补上
+ * 2. 之后每个同步间隔拉取基线之后的变更，一批未取完时继续拉取
+ * 3. 整批写入后推进版本，失败时下个间隔从原版本重试
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class MerchantConfigSyncService {
+
+    @Resource
+    PaymentServiceApi paymentServiceApi;
+
+    @Resource
+    MerchantConfigService merchantConfigService;
+
+    @Resource
+    MerchantConfigCacheProperties cacheProperties;
+
+    /**
+     * 生产环境最近一次同步成功的时间（毫秒），0 表示尚未成功
+     */
+    private final AtomicLong productionSyncedAt = new AtomicLong();
+
+    /**
+     * 沙箱环境最近一次同步成功的时间（毫秒），0 表示尚未成功
+     */
+    private final AtomicLong sandboxSyncedAt = new AtomicLong();
+
+    /**
+     * 已应用的变更条数
+     */
+    private final LongAdder appliedChanges = new LongAdder();
+
+    /**
+     * 同步失败次数
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * 定期同步任务
+     */
+    private Disposable periodicSync;
+
+    /**
+     * 启动定期同步
+     * 上一轮同步未结束时跳过本轮，不会并发同步
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        MerchantConfigCacheProperties.Sync sync = cacheProperties.getSync();
+        if (!sync.isEnabled()) {
+            log.info("商户配置增量同步未开启");
+            return;
+        }
+        log.info("商户配置增量同步开始 - 同步间隔: {}, 每批条数: {}", sync.getInterval(), sync.getBatchSize());
+        periodicSync = Flux.interval(sync.getInterval(), Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> syncOnce(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (Objects.nonNull(periodicSync)) {
+            periodicSync.dispose();
+        }
+    }
+
+    /**
+     * 确定同步基线
+     * 预热前调用，已确定基线或未开启同步时直接完成，失败不影响预热
+     *
+     * @return 完成信号
+     */
+    public Mono<Void> initBaseline() {
+        if (!cacheProperties.getSync().isEnabled()) {
+            return Mono.empty();
+        }
+        Mono<Void> sandbox = cacheProperties.getSync().isSandbox() ? syncSandbox() : Mono.empty();
+        return Mono.when(syncProduction(), sandbox)
+                .onErrorResume(error -> {
+                    log.warn("商户配置同步基线获取失败 - 错误: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 同步落后时间（秒）
+     * 距最近一次同步成功的时间，尚未成功时为 -1
+     *
+     * @param sandbox 是否沙箱环境
+     * @return 落后秒数
+     */
+    public double lagSeconds(boolean sandbox) {
+        long syncedAt = (sandbox ? sandboxSyncedAt : productionSyncedAt).get();
+        return syncedAt == 0 ? -1 : (System.currentTimeMillis() - syncedAt) / 1000d;
+    }
+
+    public long appliedCount() {
+        return appliedChanges.sum();
+    }
+
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * 执行一轮同步
+     */
+    private Mono<Void> syncOnce() {
+        Mono<Void> sandbox = cacheProperties.getSync().isSandbox() ? syncSandbox() : Mono.empty();
+        return Mono.when(syncProduction(), sandbox)
+                .onErrorResume(error -> {
+                    failures.increment();
+                    log.warn("商户配置增量同步失败，下次从原版本重试 - 错误: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> syncProduction() {
+        return sync(false, paymentServiceApi::getMerchantConfigChanges,
+                merchantConfigService::applyMerchantConfigChanges, productionSyncedAt);
+    }
+
+    private Mono<Void> syncSandbox() {
+        return sync(true, paymentServiceApi::getSandboxMerchantConfigChanges,
+                merchantConfigService::applySandboxMerchantConfigChanges, sandboxSyncedAt);
+    }
+
+    /**
+     * 拉取并应用一个环境的变更，一批未取完时继续拉取
+     */
+    private <T> Mono<Void> sync(boolean sandbox,
+                               Function<MerchantConfigChangesParam, Mono<Result<MerchantConfigChangesDTO<T>>>> fetcher,
+                               ToIntFunction<MerchantConfigChangesDTO<T>> applier, AtomicLong syncedAt) {
+        return Mono.defer(() -> {
+            long version = merchantConfigService.syncedVersion(sandbox);
+            MerchantConfigChangesParam param = new MerchantConfigChangesParam()
+                    .setSinceVersion(version == MerchantConfigEntry.NO_VERSION ? null : version)
+                    .setLimit(cacheProperties.getSync().getBatchSize());
+
+            return fetcher.apply(param)
+                    .flatMap(result -> Mono.justOrEmpty(Result.parse(result)))
+                    .switchIfEmpty(Mono.error(new IllegalStateException("Merchant config changes is empty")))
+                    .flatMap(changes -> {
+                        if (Objects.isNull(changes.getVersion())) {
+                            return Mono.error(new IllegalStateException("Merchant config changes without version"));
+                        }
+                        int applied = applier.applyAsInt(changes);
+                        appliedChanges.add(applied);
+                        if (applied > 0 || version == MerchantConfigEntry.NO_VERSION) {
+                            log.info("商户配置增量同步 - 环境: {}, 版本: {} -> {}, 变更: {}",
+                                    sandbox ? "sandbox" : "production", version, changes.getVersion(), applied);
+                        }
+                        if (Boolean.TRUE.equals(changes.getHasMore()) && changes.getVersion() > version) {
+                            return sync(sandbox, fetcher, applier, syncedAt);
+                        }
+                        syncedAt.set(System.currentTimeMillis());
+                        return Mono.empty();
+                    });
+        });
+    }
+}
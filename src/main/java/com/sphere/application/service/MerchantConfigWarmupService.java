@@ -0,0 +1,221 @@
+package com.sphere.application.service;
+
+import com.sphere.api.vo.PageResult;
+import com.sphere.common.constants.GatewayConstant;
+import com.sphere.infrastructure.cache.MerchantConfigCacheProperties;
+import com.sphere.infrastructure.integration.payment.PaymentServiceApi;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigPageParam;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 商户配置预热服务
+ * 应用启动后分页批量加载启用的商户配置写入缓存，避免发布后的首批请求全部回源。
+ * 预热完成（含失败、超时）前就绪检查返回未就绪，之后未预热到的商户仍按需加载；
+ * 已从本地快照恢复商户配置时立即就绪，预热在后台完成重新校验；
+ * 支付服务未提供分页查询接口（404）时立即结束预热，不等待超时
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class MerchantConfigWarmupService {
+
+    /**
+     * 预热状态
+     */
+    public enum WarmupState {
+        /**
+         * 等待启动
+         */
+        PENDING,
+        /**
+         * 预热中
+         */
+        RUNNING,
+        /**
+         * 预热完成
+         */
+        COMPLETED,
+        /**
+         * 预热失败或超时
+         */
+        FAILED,
+        /**
+         * 未开启预热，或支付服务未提供分页查询接口
+         */
+        DISABLED
+    }
+
+    @Resource
+    PaymentServiceApi paymentServiceApi;
+
+    @Resource
+    MerchantConfigService merchantConfigService;
+
+    @Resource
+    MerchantConfigSnapshotService merchantConfigSnapshotService;
+
+    @Resource
+    MerchantConfigSyncService merchantConfigSyncService;
+
+    @Resource
+    MerchantConfigCacheProperties cacheProperties;
+
+    private final AtomicReference<WarmupState> state = new AtomicReference<>(WarmupState.PENDING);
+
+    /**
+     * 已预热商户数
+     */
+    private final AtomicLong loaded = new AtomicLong();
+
+    /**
+     * 启动预热
+     * 异步执行，不阻塞启动流程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        MerchantConfigCacheProperties.Warmup warmup = cacheProperties.getWarmup();
+        if (!warmup.isEnabled()) {
+            state.set(WarmupState.DISABLED);
+            log.info("商户配置预热未开启");
+            return;
+        }
+        if (!state.compareAndSet(WarmupState.PENDING, WarmupState.RUNNING)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        log.info("商户配置预热开始 - 每页条数: {}, 并发页数: {}", warmup.getPageSize(), warmup.getConcurrency());
+
+        // 版本在确定同步基线后读取，预热写入的配置不会覆盖之后增量同步写入的配置
+        Mono<Void> production = Mono.defer(() -> {
+            long version = merchantConfigService.syncedVersion(false);
+            return loadAll(paymentServiceApi::getMerchantConfigs, MerchantConfigDTO::getMerchantId,
+                    config -> merchantConfigService.putMerchantConfig(config.getMerchantId(), config, version));
+        });
+        Mono<Void> sandbox = warmup.isSandbox() ?
+                Mono.defer(() -> {
+                    long version = merchantConfigService.syncedVersion(true);
+                    return loadAll(paymentServiceApi::getSandboxMerchantConfigs,
+                            MerchantSandboxConfigDTO::getMerchantId,
+                            config -> merchantConfigService.putSandboxMerchantConfig(config.getMerchantId(), config,
+                                    version));
+                }) :
+                Mono.empty();
+
+        merchantConfigSyncService.initBaseline()
+                .then(Mono.when(production, sandbox))
+                .timeout(warmup.getTimeout())
+                .subscribe(
+                        ignored -> {
+                        },
+                        error -> {
+                            if (error instanceof WebClientResponseException.NotFound) {
+                                state.set(WarmupState.DISABLED);
+                                log.warn("支付服务未提供商户配置分页查询接口，跳过预热，商户将按需加载");
+                                return;
+                            }
+                            state.set(WarmupState.FAILED);
+                            log.warn("商户配置预热失败，未加载的商户将按需加载 - 已加载: {}, 耗时: {}ms, 错误: {}",
+                                    loaded.get(), System.currentTimeMillis() - start, error.getMessage());
+                        },
+                        () -> {
+                            state.set(WarmupState.COMPLETED);
+                            log.info("商户配置预热完成 - 已加载: {}, 耗时: {}ms",
+                                    loaded.get(), System.currentTimeMillis() - start);
+                        });
+    }
+
+    /**
+     * 是否已结束预热（完成、失败或未开启）
+     *
+     * @return 预热已结束返回true
+     */
+    public boolean isFinished() {
+        WarmupState current = state.get();
+        return current != WarmupState.PENDING && current != WarmupState.RUNNING;
+    }
+
+    /**
+     * 是否可以接收流量
+     * 预热已结束，或已从快照恢复商户配置
+     *
+     * @return 可以接收流量返回true
+     */
+    public boolean isReady() {
+        return isFinished() || merchantConfigSnapshotService.getRestored() > 0;
+    }
+
+    public WarmupState getState() {
+        return state.get();
+    }
+
+    public long getLoaded() {
+        return loaded.get();
+    }
+
+    public int getRestored() {
+        return merchantConfigSnapshotService.getRestored();
+    }
+
+    /**
+     * 分页加载全部商户
+     * 先查询第一页获得总数，其余页按并发上限加载
+     */
+    private <T> Mono<Void> loadAll(Function<MerchantConfigPageParam, Mono<PageResult<T>>> pageLoader,
+                                   Function<T, String> merchantId, Consumer<T> writer) {
+        int pageSize = cacheProperties.getWarmup().getPageSize();
+        int concurrency = cacheProperties.getWarmup().getConcurrency();
+
+        return loadPage(pageLoader, 1, pageSize)
+                .flatMapMany(first -> {
+                    long total = Objects.isNull(first.getTotal()) ? 0 : first.getTotal();
+                    int pages = (int) Math.max(1, (total + pageSize - 1) / pageSize);
+                    return Flux.just(first)
+                            .concatWith(Flux.range(2, pages - 1)
+                                    .flatMap(pageNum -> loadPage(pageLoader, pageNum, pageSize), concurrency));
+                })
+                .doOnNext(page -> {
+                    List<T> configs = Objects.isNull(page.getData()) ? Collections.emptyList() : page.getData();
+                    for (T config : configs) {
+                        if (StringUtils.isNotBlank(merchantId.apply(config))) {
+                            writer.accept(config);
+                            loaded.incrementAndGet();
+                        }
+                    }
+                })
+                .then();
+    }
+
+    private <T> Mono<PageResult<T>> loadPage(Function<MerchantConfigPageParam, Mono<PageResult<T>>> pageLoader,
+                                             int pageNum, int pageSize) {
+        MerchantConfigPageParam param = new MerchantConfigPageParam().setPageNum(pageNum).setPageSize(pageSize);
+        return pageLoader.apply(param)
+                .flatMap(page -> {
+                    if (Objects.isNull(page.getCode()) || !page.getCode().equals(GatewayConstant.SUCCESS)) {
+                        return Mono.error(new IllegalStateException(
+                                "Merchant config page " + pageNum + " failed: " + page.getMessage()));
+                    }
+                    return Mono.just(page);
+                });
+    }
+}
@@ -0,0 +1,235 @@
+package com.sphere.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 签名防重放服务
+ * 记录时间戳窗口内已通过校验的 商户+签名 指纹，重复请求在网关直接拒绝，不再转发到支付服务。
+ *
+ * 指纹按请求时间戳（参与签名，无法单独篡改）的分钟分桶：同一签名总是落在同一分桶，
+ * 时间戳通过校验的请求只会落在当前时间前后 WINDOW_MINUTES 的分桶内，
+ * 因此签名在时间戳失效前一直能被查到，无论请求何时到达。
+ * 分桶存放在固定数量的环形分段中，每个分段为定长开放寻址表，
+ * 分段被新分桶占用时整表替换而不是原地清空，不会误删并发写入；内存占用与流量无关
+ *
+ * 分段已满时拒绝请求（fail closed）：无法记录的签名也无法防重放，宁可让客户端稍后重试
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SignatureReplayService {
+
+    /**
+     * 时间戳允许的最大偏差（分钟），请求时间戳校验使用同一值
+     */
+    public static final int WINDOW_MINUTES = 5;
+
+    /**
+     * 分桶时长（毫秒）
+     */
+    private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 当前时间前后有效的分桶数
+     * 时间戳校验按整分钟截断，实际偏差不足 WINDOW_MINUTES + 1 分钟
+     */
+    private static final int LIVE_BUCKETS = WINDOW_MINUTES + 1;
+
+    /**
+     * 分段数量：前后有效分桶 + 当前分桶 + 1，分段被复用时原分桶已失效
+     */
+    private static final int SEGMENT_COUNT = LIVE_BUCKETS * 2 + 2;
+
+    /**
+     * 单个分段槽位数，必须为2的幂，每槽8字节
+     */
+    private static final int SEGMENT_CAPACITY = 1 << 18;
+
+    /**
+     * 最大探测次数，超出视为分段已满
+     */
+    private static final int MAX_PROBES = 32;
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<Segment>[] segments = new AtomicReference[SEGMENT_COUNT];
+
+    /**
+     * 拒绝的重放请求数
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 分段已满拒绝的请求数
+     */
+    private final LongAdder overflow = new LongAdder();
+
+    public SignatureReplayService() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new AtomicReference<>(new Segment(Long.MIN_VALUE));
+        }
+    }
+
+    /**
+     * 校验结果
+     */
+    public enum Outcome {
+        /**
+         * 首次出现，已记录
+         */
+        ACCEPTED,
+        /**
+         * 窗口内重复或时间戳超出窗口
+         */
+        REPLAYED,
+        /**
+         * 分段已满，未能记录
+         */
+        OVERFLOW
+    }
+
+    /**
+     * 记录签名
+     *
+     * @param merchantId 商户ID
+     * @param signature 已校验通过的签名
+     * @param requestTimeMillis 请求时间戳（毫秒）
+     * @return 校验结果
+     */
+    public Outcome tryAccept(String merchantId, String signature, long requestTimeMillis) {
+        long bucket = Math.floorDiv(requestTimeMillis, BUCKET_MILLIS);
+        long currentBucket = System.currentTimeMillis() / BUCKET_MILLIS;
+        if (Math.abs(bucket - currentBucket) > LIVE_BUCKETS) {
+            rejected.increment();
+            return Outcome.REPLAYED;
+        }
+
+        Segment segment = segment(bucket);
+        if (segment == null) {
+            rejected.increment();
+            return Outcome.REPLAYED;
+        }
+        int result = segment.add(fingerprint(merchantId, signature));
+        if (result == Segment.DUPLICATE) {
+            rejected.increment();
+            return Outcome.REPLAYED;
+        }
+        if (result == Segment.FULL) {
+            overflow.increment();
+            log.warn("SignatureReplayService segment full, merchantId={}", merchantId);
+            return Outcome.OVERFLOW;
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * 拒绝的重放请求数
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 分段已满拒绝的请求数
+     */
+    public long overflowCount() {
+        return overflow.sum();
+    }
+
+    /**
+     * 获取分桶对应的分段，分段仍属于已失效的分桶时替换为新分段
+     * 分段已被更新的分桶占用时，说明请求分桶已失效，返回null
+     */
+    private Segment segment(long bucket) {
+        AtomicReference<Segment> ref = segments[(int) Math.floorMod(bucket, (long) SEGMENT_COUNT)];
+        while (true) {
+            Segment segment = ref.get();
+            if (segment.bucket == bucket) {
+                return segment;
+            }
+            if (segment.bucket > bucket) {
+                return null;
+            }
+            Segment created = new Segment(bucket);
+            if (ref.compareAndSet(segment, created)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * 64位FNV-1a指纹，0保留为空槽
+     */
+    private static long fingerprint(String merchantId, String signature) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, merchantId);
+        hash = (hash ^ 0xFF) * 0x100000001b3L;
+        hash = fnv(hash, signature);
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        if (value == null) {
+            return hash;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 时间分段
+     * 定长开放寻址表，槽位通过CAS写入，无锁；所属分桶不可变
+     */
+    private static class Segment {
+
+        static final int ADDED = 0;
+        static final int DUPLICATE = 1;
+        static final int FULL = 2;
+
+        private static final int MASK = SEGMENT_CAPACITY - 1;
+
+        final long bucket;
+
+        final AtomicLongArray slots;
+
+        Segment(long bucket) {
+            this.bucket = bucket;
+            this.slots = new AtomicLongArray(bucket == Long.MIN_VALUE ? 0 : SEGMENT_CAPACITY);
+        }
+
+        int add(long fingerprint) {
+            int slot = slot(fingerprint);
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                long value = slots.get(slot);
+                if (value == 0) {
+                    if (slots.compareAndSet(slot, 0, fingerprint)) {
+                        return ADDED;
+                    }
+                    value = slots.get(slot);
+                }
+                if (value == fingerprint) {
+                    return DUPLICATE;
+                }
+                slot = (slot + 1) & MASK;
+            }
+            return FULL;
+        }
+
+        private static int slot(long fingerprint) {
+            long h = fingerprint;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h & MASK;
+        }
+    }
+}
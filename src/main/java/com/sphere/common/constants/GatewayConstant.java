@@ -110,6 +110,21 @@ public class GatewayConstant {
      */
     public static final String REQUEST_PARAM = "REQUEST_PARAM";
 
+    /**
+     * 请求体压缩摘要缓存键
+     */
+    public static final String REQUEST_BODY_DIGEST = "REQUEST_BODY_DIGEST";
+
+    /**
+     * 请求上下文缓存键
+     */
+    public static final String REQUEST_CONTEXT = "REQUEST_CONTEXT";
+
+    /**
+     * 路由元数据 - 服务类型
+     */
+    public static final String ROUTE_SERVICE_CODE = "serviceCode";
+
     /**
      * 生产环境商户配置缓存键前缀
      */
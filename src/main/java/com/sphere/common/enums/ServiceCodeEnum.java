@@ -5,6 +5,9 @@ import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 服务代码枚举
@@ -87,9 +90,15 @@ public enum ServiceCodeEnum {
      */
     private final String rewritePath;
 
+    /**
+     * 路径到服务代码的精确映射
+     */
+    private static final Map<String, ServiceCodeEnum> PATH_MAPPING = Arrays.stream(ServiceCodeEnum.values())
+            .collect(Collectors.toUnmodifiableMap(ServiceCodeEnum::getPath, Function.identity()));
+
     /**
      * 根据路径获取对应的服务代码枚举
-     * 通过匹配路径中的关键字来确定服务类型
+     * 路由已绑定服务类型时优先使用路由元数据，本方法仅作为未命中路由时的兜底，按路径精确匹配
      *
      * @param path 请求路径
      * @return 对应的服务代码枚举，如果未找到则返回null
@@ -98,9 +107,6 @@ public enum ServiceCodeEnum {
         if (StringUtils.isBlank(path)) {
             return null;
         }
-        return Arrays.stream(ServiceCodeEnum.values())
-                .filter(e -> path.contains(e.getPath()))
-                .findAny()
-                .orElse(null);
+        return PATH_MAPPING.get(path);
     }
 }
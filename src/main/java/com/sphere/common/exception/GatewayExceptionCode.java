@@ -19,7 +19,8 @@ public enum GatewayExceptionCode {
 
     //add here
 
-    SERVER_ERROR("9090", "Internal Server Error");
+    SERVER_ERROR("9090", "Internal Server Error"),
+    SERVICE_UNAVAILABLE("9091", "Service Unavailable, please try again later");
 
 
     private final String code;
@@ -0,0 +1,275 @@
+package com.sphere.common.utils;
+
+import com.sphere.common.exception.GatewayException;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JSON压缩摘要计算器
+ * 按字节增量执行与 {@link SignUtil#minify(String)} 相同的压缩规则，
+ * 压缩结果直接写入SHA-256摘要，不再构建完整的请求体字符串
+ *
+ * 使用说明：
+ * 1. 每收到一个请求体分片调用一次 update
+ * 2. 请求体读取完成后调用 hexDigest 获取小写16进制摘要
+ * 3. 实例非线程安全，每个请求单独创建
+ *
+ * 由于JSON结构字符均为ASCII，而UTF-8多字节序列不包含ASCII字节，
+ * 按字节压缩与按字符压缩的结果一致。
+ * 空白判断与原先的字符串流程一致（Character.isWhitespace），多字节字符按解码后的码点判断：
+ * 请求体为空白时不计算摘要，压缩结果为空白时摘要为空字符串
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public class JsonMinifyDigest {
+
+    /**
+     * 摘要算法
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * 输出缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    /**
+     * 无待处理字节
+     */
+    private static final int NONE = -1;
+
+    private final MessageDigest digest;
+
+    private final byte[] out = new byte[BUFFER_SIZE];
+
+    private int outPos = 0;
+
+    private boolean inString = false;
+
+    private boolean inMultiLineComment = false;
+
+    private boolean inSingleLineComment = false;
+
+    private int stringOpener = NONE;
+
+    /**
+     * 等待下一个字节才能判断的 '/' 或 '*'
+     */
+    private int pending = NONE;
+
+    /**
+     * 请求体是否全部为空白字符
+     */
+    private final BlankTracker body = new BlankTracker();
+
+    /**
+     * 压缩结果是否全部为空白字符
+     */
+    private final BlankTracker minified = new BlankTracker();
+
+    private boolean finished = false;
+
+    public JsonMinifyDigest() {
+        try {
+            this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new GatewayException("SHA-256 algorithm not available");
+        }
+    }
+
+    /**
+     * 写入一个请求体分片
+     * 只读取分片内容，不移动分片的读指针
+     *
+     * @param buffer 请求体分片
+     */
+    public void update(DataBuffer buffer) {
+        int start = buffer.readPosition();
+        int end = start + buffer.readableByteCount();
+        for (int i = start; i < end; i++) {
+            accept(buffer.getByte(i) & 0xFF);
+        }
+    }
+
+    /**
+     * 写入一段字节
+     *
+     * @param bytes 字节数组
+     */
+    public void update(byte[] bytes) {
+        for (byte b : bytes) {
+            accept(b & 0xFF);
+        }
+    }
+
+    /**
+     * 结束计算并返回小写16进制摘要
+     *
+     * @return 摘要；请求体为空白时返回null，压缩结果为空白时返回空字符串，
+     *         与 {@link SignUtil#stringToSign} 保持一致
+     */
+    public String hexDigest() {
+        if (finished) {
+            throw new GatewayException("Digest already finished");
+        }
+        finished = true;
+
+        if (pending != NONE) {
+            process(pending, ' ');
+            pending = NONE;
+        }
+        flush();
+
+        byte[] hash = digest.digest();
+        if (body.isBlank()) {
+            return null;
+        }
+        // 原先对空白的压缩结果不计算摘要，16进制串为空
+        return minified.isBlank() ? "" : HexFormat.of().formatHex(hash);
+    }
+
+    /**
+     * 处理单个字节
+     * '/' 与 '*' 需要结合下一个字节判断是否为注释，先暂存
+     */
+    private void accept(int b) {
+        body.accept(b);
+
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            if (process(c, b)) {
+                return;
+            }
+        }
+
+        if (b == '/' || b == '*') {
+            pending = b;
+            return;
+        }
+        process(b, ' ');
+    }
+
+    /**
+     * 压缩规则，与 {@link SignUtil#minify(String)} 逐分支对应
+     *
+     * @param c 当前字节
+     * @param cc 下一个字节
+     * @return 下一个字节是否已被消费
+     */
+    private boolean process(int c, int cc) {
+        // handle string
+        if (c == '"' || c == '\'') {
+            if (!inMultiLineComment && !inSingleLineComment) {
+                if (!inString) {
+                    inString = true;
+                    stringOpener = c;
+                } else if (stringOpener == c) {
+                    inString = false;
+                }
+            }
+        }
+
+        // handle multi-line comment
+        else if (c == '/' && cc == '*' && !inString) {
+            inMultiLineComment = true;
+            return true;
+        } else if (c == '*' && cc == '/' && inMultiLineComment) {
+            inMultiLineComment = false;
+            return true;
+        }
+
+        // handle single-line comment
+        else if (c == '/' && cc == '/' && !inString) {
+            inSingleLineComment = true;
+            return true;
+        } else if (c == '\n' && inSingleLineComment) {
+            inSingleLineComment = false;
+            return false;
+        }
+
+        // handle whitespace
+        else if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            if (!inString && !inMultiLineComment && !inSingleLineComment) {
+                return false;
+            }
+        }
+
+        // handle everything else
+        if (!inMultiLineComment && !inSingleLineComment) {
+            write(c);
+        }
+        return false;
+    }
+
+    private void write(int b) {
+        if (outPos == out.length) {
+            flush();
+        }
+        out[outPos++] = (byte) b;
+        minified.accept(b);
+    }
+
+    private void flush() {
+        if (outPos > 0) {
+            digest.update(out, 0, outPos);
+            outPos = 0;
+        }
+    }
+
+    /**
+     * 按 UTF-8 解码逐字节判断内容是否全部为空白字符
+     * 一旦出现非空白字符即停止解码
+     */
+    private static final class BlankTracker {
+
+        private boolean blank = true;
+
+        private int codePoint;
+
+        /**
+         * 当前多字节字符剩余的字节数
+         */
+        private int remaining;
+
+        void accept(int b) {
+            if (!blank) {
+                return;
+            }
+            if (remaining > 0) {
+                if ((b & 0xC0) != 0x80) {
+                    blank = false;
+                    return;
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                if (--remaining == 0) {
+                    blank = Character.isWhitespace(codePoint);
+                }
+                return;
+            }
+            if (b < 0x80) {
+                blank = Character.isWhitespace(b);
+            } else if (b >= 0xF0) {
+                codePoint = b & 0x07;
+                remaining = 3;
+            } else if (b >= 0xE0) {
+                codePoint = b & 0x0F;
+                remaining = 2;
+            } else if (b >= 0xC0) {
+                codePoint = b & 0x1F;
+                remaining = 1;
+            } else {
+                blank = false;
+            }
+        }
+
+        boolean isBlank() {
+            // 不完整的多字节字符解码为替换字符，不是空白
+            return blank && remaining == 0;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.sphere.common.utils;
+
+import com.sphere.common.constants.GatewayConstant;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 业务响应信封读取器
+ * 单次顺序扫描业务服务返回的 {"code":..,"message":..,"data":{..}}，
+ * 只解析code和message，data按原始文本区间截取，不构建JSON对象树；
+ * 扫描data时同时记录其顶层是否已包含code、message字段。
+ * 信封的code、message以及data顶层的code、message与原先按JSON对象树处理的语义一致：
+ * 值为null时视为不存在，数值响应码按整数部分处理。
+ * data的其余内容原样输出，值为null的字段会保留；原先序列化对象树时会丢弃这些字段
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Getter
+public final class ResponseEnvelope {
+
+    /**
+     * 响应码，缺失、为null或不是数值时为null
+     */
+    private Integer code;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * data原始文本，缺失或为null时为null
+     */
+    private String data;
+
+    /**
+     * data是否为JSON对象
+     */
+    private boolean dataObject;
+
+    /**
+     * data顶层是否包含值不为null的code
+     */
+    private boolean dataHasCode;
+
+    /**
+     * data顶层是否包含值不为null的message
+     */
+    private boolean dataHasMessage;
+
+    /**
+     * data顶层code、message值为null时null在data中的位置，用于替换为默认值，否则为-1
+     */
+    private int dataCodeNullAt = -1;
+
+    private int dataMessageNullAt = -1;
+
+    /**
+     * 扫描data对象时data在json中的起始位置
+     */
+    private int dataStart;
+
+    private final String json;
+
+    private int pos;
+
+    private ResponseEnvelope(String json) {
+        this.json = json;
+    }
+
+    /**
+     * 读取响应信封
+     *
+     * @param raw 业务服务原始响应
+     * @return 响应信封
+     * @throws IllegalArgumentException 响应不是合法的JSON对象时抛出
+     */
+    public static ResponseEnvelope read(String raw) {
+        ResponseEnvelope envelope = new ResponseEnvelope(raw);
+        envelope.skipWhitespace();
+        envelope.scanObject(true);
+        envelope.skipWhitespace();
+        if (envelope.pos != raw.length()) {
+            throw envelope.error("trailing characters");
+        }
+        return envelope;
+    }
+
+    /**
+     * 构建成功响应
+     * data缺少code、message时追加默认值，值为null时原位替换为默认值，其余内容原样输出
+     *
+     * @param defaultCode 默认响应码
+     * @param defaultMessage 默认响应消息
+     * @return 响应JSON
+     */
+    public String successBody(String defaultCode, String defaultMessage) {
+        if (dataHasCode && dataHasMessage) {
+            return data;
+        }
+
+        int close = data.lastIndexOf('}');
+        boolean empty = data.substring(data.indexOf('{') + 1, close).isBlank();
+        StringBuilder builder = new StringBuilder(data.length() + 64);
+        int codeAt = dataHasCode ? -1 : dataCodeNullAt;
+        int messageAt = dataHasMessage ? -1 : dataMessageNullAt;
+        int copied = 0;
+        if (codeAt >= 0 && (messageAt < 0 || codeAt < messageAt)) {
+            copied = replaceNull(builder, copied, codeAt, defaultCode);
+            codeAt = -1;
+        }
+        if (messageAt >= 0) {
+            copied = replaceNull(builder, copied, messageAt, defaultMessage);
+        }
+        if (codeAt >= 0) {
+            copied = replaceNull(builder, copied, codeAt, defaultCode);
+        }
+        builder.append(data, copied, close);
+        if (!dataHasCode && dataCodeNullAt < 0) {
+            builder.append(empty ? "" : ",").append('"').append(GatewayConstant.CODE).append("\":");
+            appendQuoted(builder, defaultCode);
+            empty = false;
+        }
+        if (!dataHasMessage && dataMessageNullAt < 0) {
+            builder.append(empty ? "" : ",").append('"').append(GatewayConstant.MESSAGE).append("\":");
+            appendQuoted(builder, defaultMessage);
+        }
+        return builder.append(data, close, data.length()).toString();
+    }
+
+    /**
+     * 复制到null之前的内容，并将null替换为默认值
+     *
+     * @return 已复制到的位置
+     */
+    private int replaceNull(StringBuilder builder, int copied, int at, String value) {
+        builder.append(data, copied, at);
+        appendQuoted(builder, value);
+        return at + 4;
+    }
+
+    /**
+     * 扫描对象
+     *
+     * @param envelope true为最外层信封，false为data对象
+     */
+    private void scanObject(boolean envelope) {
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            if (envelope) {
+                readEnvelopeField(key);
+            } else {
+                readDataField(key);
+            }
+
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private void readEnvelopeField(String key) {
+        int start = pos;
+        switch (key) {
+            case GatewayConstant.CODE -> {
+                skipValue();
+                code = parseCode(start, pos);
+            }
+            case GatewayConstant.MESSAGE -> {
+                if (peek() == '"') {
+                    message = readString();
+                } else {
+                    skipValue();
+                    message = isNull(start, pos) ? null : json.substring(start, pos);
+                }
+            }
+            case GatewayConstant.DATA -> readData(start);
+            default -> skipValue();
+        }
+    }
+
+    /**
+     * 记录data顶层的code、message，值为null时记录位置而不视为已包含
+     */
+    private void readDataField(String key) {
+        int start = pos;
+        skipValue();
+        boolean isCode = GatewayConstant.CODE.equals(key);
+        if (!isCode && !GatewayConstant.MESSAGE.equals(key)) {
+            return;
+        }
+        if (!isNull(start, pos)) {
+            if (isCode) {
+                dataHasCode = true;
+            } else {
+                dataHasMessage = true;
+            }
+        } else if (isCode && dataCodeNullAt < 0) {
+            dataCodeNullAt = start - dataStart;
+        } else if (!isCode && dataMessageNullAt < 0) {
+            dataMessageNullAt = start - dataStart;
+        }
+    }
+
+    private void readData(int start) {
+        char c = peek();
+        if (c == '{') {
+            resetDataFields();
+            dataStart = start;
+            scanObject(false);
+            data = json.substring(start, pos);
+            dataObject = true;
+        } else if (c == '"') {
+            // data为字符串时按其内容处理，内容本身可能是JSON对象
+            data = readString();
+            dataObject = false;
+            resetDataFields();
+            ResponseEnvelope nested = new ResponseEnvelope(data);
+            nested.skipWhitespace();
+            if (nested.pos < data.length() && data.charAt(nested.pos) == '{') {
+                try {
+                    nested.scanObject(false);
+                    nested.skipWhitespace();
+                    if (nested.pos == data.length()) {
+                        dataObject = true;
+                        dataHasCode = nested.dataHasCode;
+                        dataHasMessage = nested.dataHasMessage;
+                        dataCodeNullAt = nested.dataCodeNullAt;
+                        dataMessageNullAt = nested.dataMessageNullAt;
+                    }
+                } catch (IllegalArgumentException ignored) {
+                    dataObject = false;
+                }
+            }
+        } else {
+            skipValue();
+            data = isNull(start, pos) ? null : json.substring(start, pos);
+            dataObject = false;
+            resetDataFields();
+        }
+    }
+
+    private void resetDataFields() {
+        dataHasCode = false;
+        dataHasMessage = false;
+        dataCodeNullAt = -1;
+        dataMessageNullAt = -1;
+    }
+
+    /**
+     * 解析响应码
+     * 整数直接解析；200.0、2e2 等数值取整数部分，与按对象树读取整数时一致
+     */
+    private Integer parseCode(int start, int end) {
+        String token = json.substring(start, end);
+        if (token.length() >= 2 && token.charAt(0) == '"') {
+            token = token.substring(1, token.length() - 1);
+        }
+        token = token.trim();
+        try {
+            return Integer.valueOf(token);
+        } catch (NumberFormatException e) {
+            // 非整数写法，按数值取整数部分
+        }
+        try {
+            BigDecimal value = new BigDecimal(token);
+            // 整数部分位数，先行判断避免指数很大时展开
+            long integerDigits = (long) value.precision() - value.scale();
+            if (integerDigits <= 0) {
+                return 0;
+            }
+            if (integerDigits > 10) {
+                return null;
+            }
+            return value.setScale(0, RoundingMode.DOWN).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private boolean isNull(int start, int end) {
+        return json.startsWith("null", start) && end - start == 4;
+    }
+
+    private void skipValue() {
+        char c = peek();
+        switch (c) {
+            case '"' -> skipString();
+            case '{', '[' -> skipContainer();
+            default -> {
+                int start = pos;
+                while (pos < json.length()) {
+                    char v = json.charAt(pos);
+                    if (v == ',' || v == '}' || v == ']' || Character.isWhitespace(v)) {
+                        break;
+                    }
+                    pos++;
+                }
+                if (pos == start) {
+                    throw error("expected value");
+                }
+            }
+        }
+    }
+
+    private void skipContainer() {
+        int depth = 0;
+        do {
+            char c = next();
+            if (c == '"') {
+                pos--;
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                next();
+            }
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        int start = pos;
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return json.substring(start, pos - 1);
+            }
+            if (c == '\\') {
+                pos = start;
+                return readEscapedString();
+            }
+        }
+    }
+
+    private String readEscapedString() {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > json.length()) {
+                        throw error("invalid unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(json, pos, pos + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> builder.append(escaped);
+            }
+        }
+    }
+
+    private static void appendQuoted(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= json.length()) {
+            throw error("unexpected end");
+        }
+        return json.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException("Invalid response JSON at " + pos + ": " + reason);
+    }
+}
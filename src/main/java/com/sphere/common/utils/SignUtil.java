@@ -1,5 +1,7 @@
 package com.sphere.common.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.sphere.common.exception.GatewayException;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +20,10 @@ import java.security.Signature;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -48,6 +54,70 @@ public class SignUtil {
      */
     private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
 
+    /**
+     * HMAC签名算法
+     */
+    private static final String HMAC_ALGORITHM = "HmacSHA512";
+
+    /**
+     * HmacSHA512引擎缓存的最大密钥数
+     */
+    private static final int HMAC_CACHE_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 单个密钥保留的空闲Mac实例数
+     */
+    private static final int HMAC_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * HmacSHA512引擎缓存
+     * 以商户密钥为键，商户配置替换或移除时由商户配置服务释放旧密钥的引擎，其余引擎在一小时无访问后淘汰
+     */
+    private static final Cache<String, MacPool> HMAC_ENGINES = Caffeine.newBuilder()
+            .maximumSize(HMAC_CACHE_MAXIMUM_SIZE)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+
+    /**
+     * RSA密钥缓存的最大密钥数
+     */
+    private static final int RSA_KEY_CACHE_MAXIMUM_SIZE = 10000;
+
+    /**
+     * RSA私钥缓存的最大密钥数，私钥只用于网关自身签名，数量很少
+     */
+    private static final int RSA_PRIVATE_KEY_CACHE_MAXIMUM_SIZE = 16;
+
+    /**
+     * 已解析的RSA公钥缓存
+     * 以Base64编码公钥的SHA-256指纹为键，缓存中不保留密钥原文，避免每次验签都解码并调用KeyFactory
+     */
+    private static final Cache<String, PublicKey> PUBLIC_KEYS = Caffeine.newBuilder()
+            .maximumSize(RSA_KEY_CACHE_MAXIMUM_SIZE)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+
+    /**
+     * 已解析的RSA私钥缓存
+     * 同样以指纹为键；容量很小且写入五分钟后过期，私钥不会长期驻留在进程级缓存中
+     */
+    private static final Cache<String, PrivateKey> PRIVATE_KEYS = Caffeine.newBuilder()
+            .maximumSize(RSA_PRIVATE_KEY_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 每个线程复用一个SHA-256摘要实例，用于计算密钥指纹
+     */
+    private static final ThreadLocal<MessageDigest> KEY_DIGESTS = ThreadLocal.withInitial(SignUtil::newKeyDigest);
+
+    /**
+     * 每个线程复用一个Signature实例，每次使用前重新init
+     */
+    private static final ThreadLocal<Signature> RSA_SIGNATURES = ThreadLocal.withInitial(SignUtil::newRsaSignature);
+
     /**
      * 私有构造函数，防止实例化
      */
@@ -71,12 +141,9 @@ public class SignUtil {
         }
 
         try {
-            byte[] privateKeys = Base64.getDecoder().decode(privateKeyStr.getBytes(StandardCharsets.UTF_8));
-            PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(privateKeys);
-            KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
-            PrivateKey privateKey = keyFactory.generatePrivate(privateKeySpec);
+            PrivateKey privateKey = PRIVATE_KEYS.get(fingerprint(privateKeyStr), key -> parsePrivateKey(privateKeyStr));
 
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            Signature signature = RSA_SIGNATURES.get();
             signature.initSign(privateKey);
             signature.update(content.getBytes(encode));
             byte[] signed = signature.sign();
@@ -105,21 +172,82 @@ public class SignUtil {
         }
 
         try {
-            byte[] publicKeys = Base64.getDecoder().decode(publicKeyStr.getBytes(StandardCharsets.UTF_8));
-            X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeys);
-            KeyFactory myKeyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
-            PublicKey publicKey = myKeyFactory.generatePublic(publicKeySpec);
+            return doCheck(content.getBytes(encode), signed, publicKeyStr);
+        } catch (Exception e) {
+            log.error("RSA验签失败: content={}, error={}", content, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * RSA签名验证
+     * 直接使用原始字节验证签名，调用方无需再构建内容字符串
+     *
+     * @param content 原始内容字节
+     * @param signed Base64编码的签名
+     * @param publicKeyStr Base64编码的公钥
+     * @return 验证结果
+     */
+    public static boolean doCheck(byte[] content, String signed, String publicKeyStr) {
+        if (content == null || content.length == 0 || StringUtils.isAnyBlank(signed, publicKeyStr)) {
+            log.warn("验签参数为空: signed={}, publicKeyStr={}", signed, publicKeyStr);
+            return false;
+        }
+
+        try {
+            PublicKey publicKey = PUBLIC_KEYS.get(fingerprint(publicKeyStr), key -> parsePublicKey(publicKeyStr));
 
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            Signature signature = RSA_SIGNATURES.get();
             signature.initVerify(publicKey);
-            signature.update(content.getBytes(encode));
+            signature.update(content);
             return signature.verify(Base64.getDecoder().decode(signed));
         } catch (Exception e) {
-            log.error("RSA验签失败: content={}, error={}", content, e.getMessage(), e);
+            log.error("RSA验签失败: error={}", e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * 解析Base64编码的私钥
+     */
+    @SneakyThrows
+    private static PrivateKey parsePrivateKey(String privateKeyStr) {
+        byte[] privateKeys = Base64.getDecoder().decode(privateKeyStr.getBytes(StandardCharsets.UTF_8));
+        PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(privateKeys);
+        KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+        return keyFactory.generatePrivate(privateKeySpec);
+    }
+
+    /**
+     * 解析Base64编码的公钥
+     */
+    @SneakyThrows
+    private static PublicKey parsePublicKey(String publicKeyStr) {
+        byte[] publicKeys = Base64.getDecoder().decode(publicKeyStr.getBytes(StandardCharsets.UTF_8));
+        X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeys);
+        KeyFactory myKeyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+        return myKeyFactory.generatePublic(publicKeySpec);
+    }
+
+    /**
+     * 密钥指纹
+     * Base64编码密钥的SHA-256摘要，作为缓存键
+     */
+    private static String fingerprint(String keyStr) {
+        MessageDigest digest = KEY_DIGESTS.get();
+        return Base64.getEncoder().encodeToString(digest.digest(keyStr.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SneakyThrows
+    private static MessageDigest newKeyDigest() {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    @SneakyThrows
+    private static Signature newRsaSignature() {
+        return Signature.getInstance(SIGNATURE_ALGORITHM);
+    }
+
     /**
      * 生成待签名字符串
      * 按照指定格式拼接参数：POST:endpointUrl:accessToken:hexString:timeStamp
@@ -144,6 +272,26 @@ public class SignUtil {
         return "POST" + ":" + endpointUrl + ":" + accessToken + ":" + hexString + ":" + timeStamp;
     }
 
+    /**
+     * 使用已计算好的请求体摘要生成待签名字符串
+     * 摘要由 {@link JsonMinifyDigest} 在读取请求体时增量计算，无需再持有完整请求体
+     *
+     * @param endpointUrl 接口地址
+     * @param accessToken 访问令牌
+     * @param bodyHexDigest 压缩后请求体的SHA256小写16进制摘要，压缩结果为空白时为空字符串
+     * @param timeStamp 时间戳
+     * @return 待签名字符串
+     */
+    public static String stringToSignWithDigest(String endpointUrl, String accessToken, String bodyHexDigest,
+                                                String timeStamp) {
+        if (StringUtils.isAnyBlank(endpointUrl, accessToken, timeStamp) || Objects.isNull(bodyHexDigest)) {
+            log.warn("生成待签名字符串参数为空: endpointUrl={}, accessToken={}, bodyHexDigest={}, timeStamp={}",
+                    endpointUrl, accessToken, bodyHexDigest, timeStamp);
+            return null;
+        }
+        return "POST" + ":" + endpointUrl + ":" + accessToken + ":" + bodyHexDigest + ":" + timeStamp;
+    }
+
     /**
      * SHA256哈希
      * 计算字符串的SHA256哈希值
@@ -187,23 +335,88 @@ public class SignUtil {
     /**
      * HmacSHA512签名
      * 使用密钥对数据进行HmacSHA512签名
+     * 已初始化的Mac实例按密钥缓存复用，避免每次请求查找算法提供者和初始化密钥
      *
      * @param signData 待签名数据
      * @param secret 密钥
      * @return Base64编码的签名结果
      */
-    @SneakyThrows
     public static String hmacSHA512(String signData, String secret) {
         if (StringUtils.isAnyBlank(signData, secret)) {
             log.warn("HmacSHA512签名参数为空: signData={}, secret={}", signData, secret);
             return null;
         }
 
-        Mac hMacSha512 = Mac.getInstance("HmacSHA512");
-        SecretKeySpec keySpec = new SecretKeySpec(secret.getBytes(), "HmacSHA512");
-        hMacSha512.init(keySpec);
-        byte[] signatureBytes = hMacSha512.doFinal(signData.getBytes());
-        return java.util.Base64.getEncoder().encodeToString(signatureBytes);
+        MacPool pool = HMAC_ENGINES.get(secret, MacPool::new);
+        Mac hMacSha512 = pool.borrow();
+        try {
+            byte[] signatureBytes = hMacSha512.doFinal(signData.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(signatureBytes);
+        } finally {
+            pool.release(hMacSha512);
+        }
+    }
+
+    /**
+     * 移除指定密钥缓存的HmacSHA512引擎
+     * 商户配置替换、删除或过期且密钥不再使用时调用
+     *
+     * @param secret 密钥
+     */
+    public static void invalidateHmacEngine(String secret) {
+        if (StringUtils.isNotBlank(secret)) {
+            HMAC_ENGINES.invalidate(secret);
+        }
+    }
+
+    /**
+     * HmacSHA512引擎缓存，用于监控指标绑定
+     *
+     * @return 引擎缓存
+     */
+    public static Cache<String, ?> hmacEngineCache() {
+        return HMAC_ENGINES;
+    }
+
+    /**
+     * RSA公钥缓存，用于监控指标绑定
+     *
+     * @return 公钥缓存
+     */
+    public static Cache<String, ?> rsaPublicKeyCache() {
+        return PUBLIC_KEYS;
+    }
+
+    /**
+     * 单个密钥的Mac实例池
+     * Mac非线程安全，每次签名借出一个实例，用完重置后归还；
+     * 池满时多余实例直接丢弃，池大小与并发线程数同量级
+     */
+    private static final class MacPool {
+
+        private final SecretKeySpec keySpec;
+
+        private final BlockingQueue<Mac> idle = new ArrayBlockingQueue<>(HMAC_POOL_SIZE);
+
+        private MacPool(String secret) {
+            this.keySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        }
+
+        @SneakyThrows
+        private Mac borrow() {
+            Mac mac = idle.poll();
+            if (mac != null) {
+                return mac;
+            }
+            mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        }
+
+        private void release(Mac mac) {
+            mac.reset();
+            idle.offer(mac);
+        }
     }
 
     /**
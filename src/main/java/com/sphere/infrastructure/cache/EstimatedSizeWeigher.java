@@ -0,0 +1,129 @@
+package com.sphere.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.sphere.application.dto.ApiConfigDTO;
+import com.sphere.application.dto.MerchantConfigEntry;
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 按估算字节数计算缓存项权重
+ * 只在写入时计算一次，字符串和字节数组按长度估算，商户配置按已知的字段长度累加，
+ * 不做序列化和反射，结果用于按内存上限淘汰，不追求精确
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public final class EstimatedSizeWeigher implements Weigher<Object, Object> {
+
+    public static final EstimatedSizeWeigher INSTANCE = new EstimatedSizeWeigher();
+
+    /**
+     * 缓存节点自身开销
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * 对象头和引用开销
+     */
+    private static final int OBJECT_OVERHEAD = 16;
+
+    /**
+     * 字段引用开销
+     */
+    private static final int REFERENCE_SIZE = 8;
+
+    /**
+     * 日期时间对象开销（对象本身加内部的日期、时间对象）
+     */
+    private static final int TEMPORAL_SIZE = 48;
+
+    /**
+     * 商户配置缓存项自身开销：两个预构建的Mono、版本、加载时间和刷新时间
+     */
+    private static final int MERCHANT_CONFIG_ENTRY_OVERHEAD = 96;
+
+    /**
+     * 未知类型的估算大小
+     */
+    private static final int UNKNOWN_SIZE = 256;
+
+    private EstimatedSizeWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = ENTRY_OVERHEAD + estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    /**
+     * 估算对象字节数
+     *
+     * @param value 对象
+     * @return 估算字节数
+     */
+    public static long estimate(Object value) {
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            // String 对象头 + 数组头 + 按 UTF-16 计算的字符
+            return OBJECT_OVERHEAD * 2L + text.length() * 2L;
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_OVERHEAD + bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return OBJECT_OVERHEAD;
+        }
+        if (value instanceof Temporal) {
+            return TEMPORAL_SIZE;
+        }
+        if (value instanceof MerchantConfigEntry<?> entry) {
+            return MERCHANT_CONFIG_ENTRY_OVERHEAD + estimate(entry.getConfig()) + estimate(entry.getApiConfig());
+        }
+        if (value instanceof ApiConfigDTO config) {
+            return OBJECT_OVERHEAD + REFERENCE_SIZE * 4L + estimate(config.getMerchantSecret())
+                    + estimate(config.getPublicKey()) + estimate(config.getExpiryDate())
+                    + estimate(config.getIpWhiteList());
+        }
+        if (value instanceof MerchantConfigDTO config) {
+            return OBJECT_OVERHEAD + REFERENCE_SIZE * 10L + estimate(config.getMerchantId())
+                    + estimate(config.getMerchantSecret()) + estimate(config.getBusinessAction())
+                    + estimate(config.getFinishPaymentUrl()) + estimate(config.getFinishCashUrl())
+                    + estimate(config.getFinishRefundUrl()) + estimate(config.getFinishRedirectUrl())
+                    + estimate(config.getPublicKey()) + estimate(config.getExpiryDate())
+                    + estimate(config.getIpWhiteList());
+        }
+        if (value instanceof MerchantSandboxConfigDTO config) {
+            return OBJECT_OVERHEAD + REFERENCE_SIZE * 11L + estimate(config.getMerchantId())
+                    + estimate(config.getMerchantName()) + estimate(config.getMerchantSecret())
+                    + estimate(config.getFinishPaymentUrl()) + estimate(config.getFinishCashUrl())
+                    + estimate(config.getFinishRefundUrl()) + estimate(config.getFinishRedirectUrl())
+                    + estimate(config.getPublicKey()) + estimate(config.getIpWhiteList())
+                    + estimate(config.getVersion()) + estimate(config.getAttribute());
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = OBJECT_OVERHEAD;
+            for (Object element : collection) {
+                bytes += REFERENCE_SIZE + estimate(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long bytes = OBJECT_OVERHEAD;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += OBJECT_OVERHEAD + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return bytes;
+        }
+        // 其他类型不展开，按固定大小估算
+        return UNKNOWN_SIZE;
+    }
+}
@@ -0,0 +1,29 @@
+package com.sphere.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * 绑定监控指标的缓存管理器
+ * 启动时注册和首次使用时创建的缓存都在创建时绑定 Caffeine 统计指标，
+ * 包括命中率、加载耗时、淘汰次数等
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public class InstrumentedCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final MeterRegistry registry;
+
+    public InstrumentedCaffeineCacheManager(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        return super.adaptCaffeineCache(name, cache);
+    }
+}
@@ -1,6 +1,12 @@
 package com.sphere.infrastructure.cache;
 
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -10,7 +16,12 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 本地缓存配置类
@@ -21,34 +32,119 @@ import java.util.concurrent.TimeUnit;
  * 2. 缓存策略设置
  * 3. 性能优化
  * 
- * 配置说明：
- * 1. 最大容量：10000 条
- * 2. 过期时间：1 小时
- * 3. 写入后过期
- * 4. 统计信息收集
+ * 配置说明（gateway.config.local-cache）：
+ * 1. defaults：默认配置，最大 10000 条、写入 1 小时后过期、开启统计
+ * 2. caches：按缓存名称配置容量或权重、过期、刷新和执行线程，未配置的项沿用默认配置
+ * 3. 配置最大权重时按估算字节数淘汰，内存占用不随单条数据大小失控
+ * 4. 刷新需要注册名为"缓存名称 + CacheLoader"的加载器，否则忽略刷新配置
+ * 5. 所有缓存创建时绑定统计指标
+ *
+ * 商户配置缓存（merchant_config）由 MerchantConfigService 单独管理，按 gateway.config.merchant-config 配置，
+ * 权重同样使用 {@link EstimatedSizeWeigher}
  *
  * @author sphere
  * @since 1.0.0
  */
+@Slf4j
 @Configuration
 @EnableCaching
 @EnableAutoConfiguration(exclude = {CacheAutoConfiguration.class})
-public class LocalCacheConfig {
+public class LocalCacheConfig implements DisposableBean {
+
+    /**
+     * 缓存加载器Bean名称后缀
+     */
+    public static final String CACHE_LOADER_SUFFIX = "CacheLoader";
+
+    /**
+     * 缓存专用线程池，关闭时释放
+     */
+    private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
 
     /**
      * 配置缓存管理器
-     * 设置缓存策略和参数
+     * 单独配置的缓存启动时创建，其余缓存按默认配置在首次使用时创建
      *
+     * @param properties 本地缓存配置
+     * @param beanFactory 用于查找缓存加载器
+     * @param registry 监控指标注册表
      * @return 配置好的缓存管理器
      */
     @Bean
     @Primary
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(10000)                 // 最大缓存条数
-                .expireAfterWrite(1, TimeUnit.HOURS) // 写入1小时后过期
-                .recordStats());                    // 开启统计
+    public CacheManager cacheManager(LocalCacheProperties properties, BeanFactory beanFactory,
+                                     MeterRegistry registry) {
+        CaffeineCacheManager cacheManager = new InstrumentedCaffeineCacheManager(registry);
+        cacheManager.setCaffeine(builder("default", properties.getDefaults(), false));
+
+        for (Map.Entry<String, LocalCacheProperties.Spec> entry : properties.getCaches().entrySet()) {
+            String cacheName = entry.getKey();
+            LocalCacheProperties.Spec spec = properties.resolve(cacheName);
+            CacheLoader<Object, Object> loader = cacheLoader(cacheName, spec, beanFactory);
+            Caffeine<Object, Object> builder = builder(cacheName, spec, Objects.nonNull(loader));
+            cacheManager.registerCustomCache(cacheName,
+                    Objects.nonNull(loader) ? builder.build(loader) : builder.build());
+            log.info("本地缓存初始化 - 名称: {}, 配置: {}", cacheName, spec);
+        }
         return cacheManager;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        executors.forEach(ExecutorService::shutdown);
+    }
+
+    /**
+     * 按配置创建缓存构建器
+     *
+     * @param cacheName 缓存名称
+     * @param spec 缓存配置
+     * @param refreshable 是否有加载器支持刷新
+     * @return 缓存构建器
+     */
+    private Caffeine<Object, Object> builder(String cacheName, LocalCacheProperties.Spec spec, boolean refreshable) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (Objects.nonNull(spec.getMaximumWeight())) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(EstimatedSizeWeigher.INSTANCE);
+        } else if (Objects.nonNull(spec.getMaximumSize())) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (Objects.nonNull(spec.getExpireAfterWrite())) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (Objects.nonNull(spec.getExpireAfterAccess())) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (Objects.nonNull(spec.getRefreshAfterWrite())) {
+            if (refreshable) {
+                builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+            } else {
+                log.warn("本地缓存未注册加载器，忽略刷新配置 - 名称: {}", cacheName);
+            }
+        }
+        if (Objects.nonNull(spec.getExecutorThreads()) && spec.getExecutorThreads() > 0) {
+            ExecutorService executor = Executors.newFixedThreadPool(spec.getExecutorThreads(),
+                    ThreadFactoryBuilder.create().setNamePrefix("local-cache-" + cacheName + "-")
+                            .setDaemon(true).build());
+            executors.add(executor);
+            builder.executor(executor);
+        }
+        if (Boolean.TRUE.equals(spec.getRecordStats())) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    /**
+     * 查找缓存加载器，仅在配置了刷新时需要
+     */
+    @SuppressWarnings("unchecked")
+    private CacheLoader<Object, Object> cacheLoader(String cacheName, LocalCacheProperties.Spec spec,
+                                                    BeanFactory beanFactory) {
+        String beanName = cacheName + CACHE_LOADER_SUFFIX;
+        if (Objects.isNull(spec.getRefreshAfterWrite()) || !beanFactory.containsBean(beanName)) {
+            return null;
+        }
+        return beanFactory.getBean(beanName, CacheLoader.class);
+    }
+}
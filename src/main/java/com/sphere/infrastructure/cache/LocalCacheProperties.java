@@ -0,0 +1,120 @@
+package com.sphere.infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地缓存配置
+ * 按缓存名称分别配置容量、过期、刷新和执行线程，未单独配置的缓存使用默认配置
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = LocalCacheProperties.PREFIX)
+public class LocalCacheProperties {
+
+    public static final String PREFIX = "gateway.config.local-cache";
+
+    /**
+     * 默认缓存配置
+     */
+    private Spec defaults = defaultSpec();
+
+    /**
+     * 按缓存名称的配置，未配置的项沿用默认配置
+     */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    /**
+     * 获取缓存的最终配置
+     *
+     * @param cacheName 缓存名称
+     * @return 合并默认配置后的缓存配置
+     */
+    public Spec resolve(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec == null ? defaults : spec.withDefaults(defaults);
+    }
+
+    /**
+     * 默认配置：最大 10000 条，写入 1 小时后过期，开启统计
+     */
+    private static Spec defaultSpec() {
+        Spec spec = new Spec();
+        spec.setMaximumSize(10000L);
+        spec.setExpireAfterWrite(Duration.ofHours(1));
+        spec.setExecutorThreads(0);
+        spec.setRecordStats(true);
+        return spec;
+    }
+
+    /**
+     * 单个缓存配置
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 最大条数，与最大权重同时配置时以最大权重为准
+         */
+        private Long maximumSize;
+
+        /**
+         * 最大权重（估算字节数），配置后按估算的内存占用淘汰
+         */
+        private Long maximumWeight;
+
+        /**
+         * 写入后过期时间
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * 访问后过期时间
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * 写入后刷新时间，需要注册名为"缓存名称 + CacheLoader"的加载器
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * 淘汰、刷新等维护任务的专用线程数，0 表示使用公共线程池
+         */
+        private Integer executorThreads;
+
+        /**
+         * 是否开启统计
+         */
+        private Boolean recordStats;
+
+        /**
+         * 未配置的项使用默认配置
+         */
+        Spec withDefaults(Spec defaults) {
+            Spec merged = new Spec();
+            // 单独配置了条数或权重上限时不再继承默认的另一种上限
+            if (maximumSize != null || maximumWeight != null) {
+                merged.setMaximumSize(maximumSize);
+                merged.setMaximumWeight(maximumWeight);
+            } else {
+                merged.setMaximumSize(defaults.getMaximumSize());
+                merged.setMaximumWeight(defaults.getMaximumWeight());
+            }
+            merged.setExpireAfterWrite(expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite());
+            merged.setExpireAfterAccess(expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess());
+            merged.setRefreshAfterWrite(refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite());
+            merged.setExecutorThreads(executorThreads != null ? executorThreads : defaults.getExecutorThreads());
+            merged.setRecordStats(recordStats != null ? recordStats : defaults.getRecordStats());
+            return merged;
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.sphere.infrastructure.cache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
@@ -109,4 +112,20 @@ public class LocalCacheService {
             cache.clear();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 获取全部 Caffeine 缓存
+     * 用于监控和缓存检查
+     *
+     * @return 缓存名称到 Caffeine 缓存的映射
+     */
+    public Map<String, com.github.benmanes.caffeine.cache.Cache<Object, Object>> nativeCaches() {
+        Map<String, com.github.benmanes.caffeine.cache.Cache<Object, Object>> caches = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                caches.put(cacheName, caffeineCache.getNativeCache());
+            }
+        }
+        return caches;
+    }
+}
@@ -0,0 +1,257 @@
+package com.sphere.infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 商户配置缓存配置
+ * 超过刷新间隔的配置继续返回，同时在后台重新加载；
+ * 后台加载失败时继续使用旧配置，直到超过最大过期时间
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = MerchantConfigCacheProperties.PREFIX)
+public class MerchantConfigCacheProperties {
+
+    public static final String PREFIX = "gateway.config.merchant-config";
+
+    /**
+     * 写入后多久触发后台刷新
+     */
+    private Duration refreshAfterWrite = Duration.ofSeconds(60);
+
+    /**
+     * 最大过期时间，刷新持续失败时旧配置最多使用到此时间；
+     * 开启增量同步且同步正常时改用 sync.max-staleness
+     */
+    private Duration maxStaleness = Duration.ofHours(1);
+
+    /**
+     * 缓存最大条数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 缓存最大权重（估算字节数），配置后按估算的内存占用淘汰，代替最大条数
+     */
+    private Long maximumWeight;
+
+    /**
+     * 启动预热配置
+     */
+    private Warmup warmup = new Warmup();
+
+    /**
+     * 未知商户缓存配置
+     */
+    private Negative negative = new Negative();
+
+    /**
+     * 本地快照配置
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 增量同步配置
+     */
+    private Sync sync = new Sync();
+
+    /**
+     * 堆外凭证存储配置
+     */
+    private OffHeap offHeap = new OffHeap();
+
+    /**
+     * 未命中合并加载配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 启动预热配置
+     * 启动后分页批量加载启用的商户配置，预热完成前就绪探针返回未就绪。
+     * 需要支付服务提供分页查询接口（getMerchantConfigs），接口上线前保持关闭
+     */
+    @Data
+    public static class Warmup {
+
+        /**
+         * 是否开启预热
+         */
+        private boolean enabled = false;
+
+        /**
+         * 是否预热沙箱商户
+         */
+        private boolean sandbox = true;
+
+        /**
+         * 每页条数
+         */
+        private int pageSize = 200;
+
+        /**
+         * 同时加载的页数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 预热超时时间，超时后放弃预热，未加载的商户按需加载
+         */
+        private Duration timeout = Duration.ofMinutes(2);
+    }
+
+    /**
+     * 未知商户缓存配置
+     * 远程确认不存在或已停用的商户单独缓存，独立的容量上限保证不会挤占正常商户
+     */
+    @Data
+    public static class Negative {
+
+        /**
+         * 未知商户缓存时间，过期后重新查询远程服务
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * 未知商户缓存最大条数
+         */
+        private long maximumSize = 10000;
+    }
+
+    /**
+     * 本地快照配置
+     * 定期将商户配置缓存写入本地文件，重启时先从快照恢复，恢复的配置在后台重新校验。
+     * 开启时必须同时配置 path 和 key-file，缺少任一项时不开启快照
+     */
+    @Data
+    public static class Snapshot {
+
+        /**
+         * 是否开启快照
+         */
+        private boolean enabled = false;
+
+        /**
+         * 快照文件路径，需挂载到重启后保留的目录
+         */
+        private String path;
+
+        /**
+         * 加密商户密钥的密钥文件（Base64 编码的 256 位密钥），需由密钥挂载提供，不会自动生成
+         */
+        private String keyFile;
+
+        /**
+         * 写入间隔
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * 快照最长可用时间，超过后不再恢复
+         */
+        private Duration maxAge = Duration.ofHours(24);
+    }
+
+    /**
+     * 增量同步配置
+     * 定期拉取支付服务的商户配置变更，需要支付服务提供变更查询接口（getMerchantConfigChanges），接口上线前保持关闭。
+     * 同步落后不超过 maxLag 时使用较长的 maxStaleness，同步中断后自动回到基础的最大过期时间
+     */
+    @Data
+    public static class Sync {
+
+        /**
+         * 是否开启增量同步
+         */
+        private boolean enabled = false;
+
+        /**
+         * 是否同步沙箱商户
+         */
+        private boolean sandbox = true;
+
+        /**
+         * 同步间隔
+         */
+        private Duration interval = Duration.ofSeconds(5);
+
+        /**
+         * 每批最大变更条数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 同步正常时的最大过期时间，变更由同步及时写入，旧配置可以使用更久
+         */
+        private Duration maxStaleness = Duration.ofHours(6);
+
+        /**
+         * 同步最大落后时间，距最近一次同步成功超过此时间或尚未成功时视为同步异常
+         */
+        private Duration maxLag = Duration.ofMinutes(1);
+    }
+
+    /**
+     * 堆外凭证存储配置
+     * 开启后商户的密钥、公钥、IP白名单和到期时间保存在堆外内存，请求校验直接读取，
+     * 堆内缓存只保留最近访问的完整配置，商户数增长时堆内存占用基本不变
+     */
+    @Data
+    public static class OffHeap {
+
+        /**
+         * 是否开启堆外凭证存储
+         */
+        private boolean enabled = false;
+
+        /**
+         * 数据块大小（字节）
+         */
+        private int chunkSize = 4 * 1024 * 1024;
+
+        /**
+         * 初始索引容量，按预计商户数配置可避免扩容
+         */
+        private int initialCapacity = 16384;
+
+        /**
+         * 开启后堆内完整配置缓存的最大条数，代替 maximumSize 和 maximumWeight
+         */
+        private long heapMaximumSize = 1000;
+
+        /**
+         * 清理间隔，定期删除超过最大过期时间的凭证，长期未访问的商户不会一直占用堆外内存
+         */
+        private Duration sweepInterval = Duration.ofMinutes(1);
+    }
+
+    /**
+     * 未命中合并加载配置
+     * 不同商户的缓存未命中在短时间内合并为一次批量查询，降低流量突增且缓存未预热时对支付服务的请求数。
+     * 需要支付服务提供按商户ID批量查询接口（getMerchantConfigsByIds），接口上线前保持关闭
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * 是否开启合并加载
+         */
+        private boolean enabled = false;
+
+        /**
+         * 最长等待时间，第一个未命中加入后最多等待此时间发起批量查询
+         */
+        private Duration maxDelay = Duration.ofMillis(5);
+
+        /**
+         * 单次批量查询的最大商户数，达到后立即发起查询
+         */
+        private int maxSize = 100;
+    }
+}
@@ -0,0 +1,345 @@
+package com.sphere.infrastructure.cache;
+
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
+import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * 商户配置快照文件
+ * 紧凑的二进制格式，读取时内存映射整个文件。商户密钥使用挂载的密钥文件 AES-GCM 加密，
+ * 商户ID作为附加认证数据，密钥不能被挪用到其他商户；文件末尾的 CRC32 用于发现截断和损坏。
+ *
+ * 文件格式（大端）：
+ * 1. 文件头：魔数、版本、生成时间（毫秒）、记录数
+ * 2. 记录：类型（生产/沙箱）、商户ID、加密的密钥、其余字段
+ * 3. 文件尾：前面全部内容的 CRC32
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+public class MerchantConfigSnapshotStore {
+
+    /**
+     * 魔数 "SMCS"
+     */
+    private static final int MAGIC = 0x534D4353;
+
+    private static final short VERSION = 1;
+
+    private static final byte PRODUCTION = 1;
+
+    private static final byte SANDBOX = 2;
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+
+    private static final int KEY_BYTES = 32;
+
+    private static final int NONCE_BYTES = 12;
+
+    private static final int TAG_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Path path;
+
+    private final SecretKeySpec key;
+
+    /**
+     * 快照内容
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Snapshot {
+
+        /**
+         * 生成时间（毫秒）
+         */
+        private final long createdAt;
+
+        /**
+         * 生产环境商户配置
+         */
+        private final List<MerchantConfigDTO> production;
+
+        /**
+         * 沙箱环境商户配置
+         */
+        private final List<MerchantSandboxConfigDTO> sandbox;
+    }
+
+    /**
+     * 创建快照文件
+     *
+     * @param path 快照文件路径
+     * @param keyFile 密钥文件，由密钥挂载提供
+     * @throws IOException 密钥文件不存在或格式不正确
+     */
+    public MerchantConfigSnapshotStore(Path path, Path keyFile) throws IOException {
+        this.path = path;
+        this.key = new SecretKeySpec(loadKey(keyFile), "AES");
+    }
+
+    /**
+     * 写入快照
+     * 先写临时文件再原子替换，写入过程中崩溃不会留下半个文件
+     *
+     * @param production 生产环境商户配置
+     * @param sandbox 沙箱环境商户配置
+     */
+    public void write(List<MerchantConfigDTO> production, List<MerchantSandboxConfigDTO> sandbox)
+            throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * (production.size() + sandbox.size()) + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(production.size() + sandbox.size());
+
+        for (MerchantConfigDTO config : production) {
+            out.writeByte(PRODUCTION);
+            writeString(out, config.getMerchantId());
+            writeSecret(out, config.getMerchantId(), config.getMerchantSecret());
+            writeInteger(out, config.getBusinessAction());
+            writeString(out, config.getFinishPaymentUrl());
+            writeString(out, config.getFinishCashUrl());
+            writeString(out, config.getFinishRefundUrl());
+            writeString(out, config.getFinishRedirectUrl());
+            writeString(out, config.getPublicKey());
+            writeDateTime(out, config.getExpiryDate());
+            writeString(out, config.getIpWhiteList());
+        }
+        for (MerchantSandboxConfigDTO config : sandbox) {
+            out.writeByte(SANDBOX);
+            writeString(out, config.getMerchantId());
+            writeSecret(out, config.getMerchantId(), config.getMerchantSecret());
+            writeString(out, config.getMerchantName());
+            writeString(out, config.getFinishPaymentUrl());
+            writeString(out, config.getFinishCashUrl());
+            writeString(out, config.getFinishRefundUrl());
+            writeString(out, config.getFinishRedirectUrl());
+            writeString(out, config.getPublicKey());
+            writeString(out, config.getIpWhiteList());
+            writeInteger(out, config.getVersion());
+            writeString(out, config.getAttribute());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        restrictPermissions(temp);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读取快照
+     *
+     * @return 快照内容，文件不存在时返回null
+     * @throws IOException 文件损坏或版本不符时抛出
+     * @throws GeneralSecurityException 本地密钥与快照不匹配时抛出
+     */
+    public Snapshot read() throws IOException, GeneralSecurityException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES
+                    || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            buffer.limit((int) size - Long.BYTES);
+
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException("Unsupported snapshot format");
+            }
+            long createdAt = buffer.getLong();
+            int count = buffer.getInt();
+
+            List<MerchantConfigDTO> production = new ArrayList<>();
+            List<MerchantSandboxConfigDTO> sandbox = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                byte type = buffer.get();
+                String merchantId = readString(buffer);
+                String merchantSecret = readSecret(buffer, merchantId);
+                if (type == PRODUCTION) {
+                    MerchantConfigDTO config = new MerchantConfigDTO();
+                    config.setMerchantId(merchantId);
+                    config.setMerchantSecret(merchantSecret);
+                    config.setBusinessAction(readInteger(buffer));
+                    config.setFinishPaymentUrl(readString(buffer));
+                    config.setFinishCashUrl(readString(buffer));
+                    config.setFinishRefundUrl(readString(buffer));
+                    config.setFinishRedirectUrl(readString(buffer));
+                    config.setPublicKey(readString(buffer));
+                    config.setExpiryDate(readDateTime(buffer));
+                    config.setIpWhiteList(readString(buffer));
+                    production.add(config);
+                } else if (type == SANDBOX) {
+                    MerchantSandboxConfigDTO config = new MerchantSandboxConfigDTO();
+                    config.setMerchantId(merchantId);
+                    config.setMerchantSecret(merchantSecret);
+                    config.setMerchantName(readString(buffer));
+                    config.setFinishPaymentUrl(readString(buffer));
+                    config.setFinishCashUrl(readString(buffer));
+                    config.setFinishRefundUrl(readString(buffer));
+                    config.setFinishRedirectUrl(readString(buffer));
+                    config.setPublicKey(readString(buffer));
+                    config.setIpWhiteList(readString(buffer));
+                    config.setVersion(readInteger(buffer));
+                    config.setAttribute(readString(buffer));
+                    sandbox.add(config);
+                } else {
+                    throw new IOException("Unknown snapshot record type " + type);
+                }
+            }
+            return new Snapshot(createdAt, production, sandbox);
+        }
+    }
+
+    private void writeSecret(DataOutputStream out, String merchantId, String secret)
+            throws IOException, GeneralSecurityException {
+        if (Objects.isNull(secret)) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+        cipher.updateAAD(aad(merchantId));
+        byte[] encrypted = cipher.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+        out.writeInt(NONCE_BYTES + encrypted.length);
+        out.write(nonce);
+        out.write(encrypted);
+    }
+
+    private String readSecret(ByteBuffer buffer, String merchantId) throws GeneralSecurityException {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] nonce = new byte[NONCE_BYTES];
+        buffer.get(nonce);
+        byte[] encrypted = new byte[length - NONCE_BYTES];
+        buffer.get(encrypted);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+        cipher.updateAAD(aad(merchantId));
+        return new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] aad(String merchantId) {
+        return Objects.isNull(merchantId) ? new byte[0] : merchantId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getInt() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * 读取密钥
+     * 密钥必须由密钥挂载提供，不自动生成：与快照放在同一目录的密钥起不到保护作用
+     */
+    private static byte[] loadKey(Path keyFile) throws IOException {
+        if (!Files.isRegularFile(keyFile)) {
+            throw new IOException("Snapshot key file not found: " + keyFile);
+        }
+        byte[] decoded = Base64.getDecoder().decode(Files.readString(keyFile, StandardCharsets.UTF_8).trim());
+        if (decoded.length != KEY_BYTES) {
+            throw new IOException("Snapshot key must be " + KEY_BYTES + " bytes");
+        }
+        return decoded;
+    }
+
+    private static void restrictPermissions(Path file) throws IOException {
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.sphere.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 微批量加载器
+ * 收集一小段时间内不同键的加载请求，合并为一次批量加载，再将结果分发给各个等待的请求
+ *
+ * 合并规则：
+ * 1. 第一个键加入时开始计时，达到最长等待时间或批量条数上限时发起批量加载
+ * 2. 同一批次内重复的键共享同一个结果
+ * 3. 批量结果中不存在的键返回空
+ * 4. 批量加载失败或没有返回结果时，该批次的每个键改为单独加载，结果分别分发，
+ *    批量接口不可用不会让整批请求失败，也不会把整批键当作不存在
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+public class MicroBatchLoader<K, V> {
+
+    private final String name;
+
+    private final Function<List<K>, Mono<Map<K, V>>> batchFunction;
+
+    private final Function<K, Mono<V>> singleFunction;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final Object lock = new Object();
+
+    /**
+     * 正在收集的批次
+     */
+    private Batch<K, V> current;
+
+    /**
+     * 批量加载次数、加载的键数
+     */
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+
+    /**
+     * 批量加载失败后改为单独加载的次数
+     */
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * 批次
+     */
+    private static final class Batch<K, V> {
+
+        private final Map<K, Sinks.One<V>> waiters = new LinkedHashMap<>();
+
+        private Disposable timer;
+    }
+
+    /**
+     * @param name 名称，用于日志
+     * @param batchFunction 批量加载，返回键到值的映射
+     * @param singleFunction 单个加载，批量加载失败或没有返回结果时逐个键使用
+     * @param maxBatchSize 批量条数上限
+     * @param maxDelay 最长等待时间
+     */
+    public MicroBatchLoader(String name, Function<List<K>, Mono<Map<K, V>>> batchFunction,
+                            Function<K, Mono<V>> singleFunction, int maxBatchSize, Duration maxDelay) {
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.singleFunction = singleFunction;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    /**
+     * 加载单个键
+     * 订阅时加入当前批次
+     *
+     * @param key 键
+     * @return 值，批量结果中不存在时为空
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            Sinks.One<V> sink;
+            Batch<K, V> full = null;
+            synchronized (lock) {
+                if (Objects.isNull(current)) {
+                    Batch<K, V> batch = new Batch<>();
+                    current = batch;
+                    batch.timer = Schedulers.parallel().schedule(() -> flushOnTimer(batch),
+                            maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+                sink = current.waiters.computeIfAbsent(key, k -> Sinks.one());
+                if (current.waiters.size() >= maxBatchSize) {
+                    full = current;
+                    current = null;
+                }
+            }
+            if (Objects.nonNull(full)) {
+                full.timer.dispose();
+                dispatch(full);
+            }
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * 批量加载次数
+     */
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * 批量加载的键数
+     */
+    public long keyCount() {
+        return keys.sum();
+    }
+
+    /**
+     * 批量加载失败后改为单独加载的次数
+     */
+    public long fallbackCount() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * 等待时间到达，批次未因条数上限提前发出时发起加载
+     */
+    private void flushOnTimer(Batch<K, V> batch) {
+        synchronized (lock) {
+            if (current != batch) {
+                return;
+            }
+            current = null;
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * 发起批量加载并分发结果
+     */
+    private void dispatch(Batch<K, V> batch) {
+        batches.increment();
+        keys.add(batch.waiters.size());
+        log.debug("微批量加载 - 名称: {}, 条数: {}", name, batch.waiters.size());
+        Mono.defer(() -> batchFunction.apply(new ArrayList<>(batch.waiters.keySet())))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("batch returned no result")))
+                .subscribe(
+                        result -> batch.waiters.forEach((key, sink) -> {
+                            V value = result.get(key);
+                            if (Objects.isNull(value)) {
+                                sink.tryEmitEmpty();
+                            } else {
+                                sink.tryEmitValue(value);
+                            }
+                        }),
+                        error -> {
+                            log.warn("微批量加载失败，改为单独加载 - 名称: {}, 条数: {}, 错误: {}",
+                                    name, batch.waiters.size(), error.getMessage());
+                            loadEach(batch);
+                        });
+    }
+
+    /**
+     * 批次内每个键单独加载，单个键失败只影响该键的请求
+     */
+    private void loadEach(Batch<K, V> batch) {
+        fallbacks.increment();
+        batch.waiters.forEach((key, sink) -> Mono.defer(() -> singleFunction.apply(key))
+                .subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty));
+    }
+}
@@ -0,0 +1,664 @@
+package com.sphere.infrastructure.cache;
+
+import com.sphere.application.dto.ApiConfigDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 堆外商户凭证存储
+ * 只保存网关校验用到的字段（密钥、公钥、IP白名单、到期时间），以紧凑的二进制记录追加写入堆外内存块，
+ * 通过同样位于堆外的开放寻址索引按缓存键查找，商户数增长时堆内存占用基本不变。
+ *
+ * 存储结构：
+ * 1. 数据块：固定大小的直接内存块，记录按 8 字节对齐追加写入，更新时写入新记录并修改索引
+ * 2. 索引：线性探测的槽位数组，每个槽位保存记录地址（块序号 + 块内偏移）和键的哈希值
+ * 3. 废弃记录超过有效记录后整理数据块，索引负载超过一半时扩容
+ * 4. 超过最大过期时间的记录由使用方定期清理（{@link #keysStoredBefore}），不依赖读取时淘汰
+ *
+ * 并发：写入互斥，读取先使用乐观读，期间有写入时退回读锁重新读取
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public class OffHeapCredentialStore {
+
+    /**
+     * 记录头：长度、键长度、版本、写入时间、下次刷新时间、到期秒、到期纳秒、三个字段长度
+     */
+    private static final int LENGTH_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = 4;
+    private static final int VERSION_OFFSET = 8;
+    private static final int STORED_AT_OFFSET = 16;
+    private static final int NEXT_REFRESH_OFFSET = 24;
+    private static final int EXPIRY_SECOND_OFFSET = 32;
+    private static final int EXPIRY_NANO_OFFSET = 40;
+    private static final int SECRET_LENGTH_OFFSET = 44;
+    private static final int PUBLIC_KEY_LENGTH_OFFSET = 48;
+    private static final int IP_LENGTH_OFFSET = 52;
+    private static final int HEADER_BYTES = 56;
+
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+
+    /**
+     * 索引槽位：记录地址（0 为空，-1 为已删除）、键哈希
+     */
+    private static final int SLOT_BYTES = 16;
+    private static final long EMPTY = 0L;
+    private static final long DELETED = -1L;
+
+    /**
+     * 数据块起始保留 8 字节，地址 0 表示空槽位
+     */
+    private static final int CHUNK_START = 8;
+
+    /**
+     * 原子更新直接内存中的下次刷新时间
+     */
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final int chunkSize;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 数据块
+     */
+    private List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * 当前写入块的写入位置
+     */
+    private int writeOffset;
+
+    /**
+     * 索引
+     */
+    private ByteBuffer index;
+
+    private int indexCapacity;
+
+    /**
+     * 有效记录数、已删除槽位数
+     */
+    private int size;
+    private int deletedSlots;
+
+    /**
+     * 有效记录字节数、废弃记录字节数
+     */
+    private long liveBytes;
+    private long garbageBytes;
+
+    /**
+     * 查询结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Credential {
+
+        /**
+         * 凭证字段
+         */
+        private final ApiConfigDTO apiConfig;
+
+        /**
+         * 同步版本
+         */
+        private final long version;
+
+        /**
+         * 写入时间（毫秒）
+         */
+        private final long storedAt;
+    }
+
+    /**
+     * @param chunkSize 数据块大小（字节）
+     * @param initialCapacity 初始索引容量
+     */
+    public OffHeapCredentialStore(int chunkSize, int initialCapacity) {
+        this.chunkSize = chunkSize;
+        this.indexCapacity = Integer.highestOneBit(Math.max(16, initialCapacity * 2 - 1)) << 1;
+        this.index = ByteBuffer.allocateDirect(indexCapacity * SLOT_BYTES);
+        newChunk(chunkSize);
+    }
+
+    /**
+     * 写入凭证
+     * 已有更高版本的记录时不写入
+     *
+     * @param key 缓存键
+     * @param credential 凭证字段
+     * @param version 同步版本
+     * @param storedAt 写入时间（毫秒），从快照恢复时可提前以便尽快刷新
+     * @param refreshAfterMillis 刷新间隔（毫秒）
+     * @return 写入返回true
+     */
+    public boolean put(String key, ApiConfigDTO credential, long version, long storedAt, long refreshAfterMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] secret = bytes(credential.getMerchantSecret());
+        byte[] publicKey = bytes(credential.getPublicKey());
+        byte[] ipWhiteList = bytes(credential.getIpWhiteList());
+        int length = align(HEADER_BYTES + keyBytes.length + lengthOf(secret) + lengthOf(publicKey)
+                + lengthOf(ipWhiteList));
+
+        long stamp = lock.writeLock();
+        try {
+            int hash = hash(key);
+            int slot = findSlot(key, hash);
+            if (slot >= 0) {
+                long existing = index.getLong(slot * SLOT_BYTES);
+                if (chunk(existing).getLong(offset(existing) + VERSION_OFFSET) > version) {
+                    return false;
+                }
+            }
+
+            long address = allocate(length);
+            ByteBuffer chunk = chunk(address);
+            int offset = offset(address);
+            chunk.putInt(offset + LENGTH_OFFSET, length);
+            chunk.putInt(offset + KEY_LENGTH_OFFSET, keyBytes.length);
+            chunk.putLong(offset + VERSION_OFFSET, version);
+            chunk.putLong(offset + STORED_AT_OFFSET, storedAt);
+            chunk.putLong(offset + NEXT_REFRESH_OFFSET, storedAt + refreshAfterMillis);
+            LocalDateTime expiryDate = credential.getExpiryDate();
+            chunk.putLong(offset + EXPIRY_SECOND_OFFSET,
+                    Objects.isNull(expiryDate) ? NO_EXPIRY : expiryDate.toEpochSecond(ZoneOffset.UTC));
+            chunk.putInt(offset + EXPIRY_NANO_OFFSET, Objects.isNull(expiryDate) ? 0 : expiryDate.getNano());
+            chunk.putInt(offset + SECRET_LENGTH_OFFSET, Objects.isNull(secret) ? -1 : secret.length);
+            chunk.putInt(offset + PUBLIC_KEY_LENGTH_OFFSET, Objects.isNull(publicKey) ? -1 : publicKey.length);
+            chunk.putInt(offset + IP_LENGTH_OFFSET, Objects.isNull(ipWhiteList) ? -1 : ipWhiteList.length);
+            int position = offset + HEADER_BYTES;
+            chunk.put(position, keyBytes);
+            position += keyBytes.length;
+            for (byte[] field : new byte[][]{secret, publicKey, ipWhiteList}) {
+                if (Objects.nonNull(field)) {
+                    chunk.put(position, field);
+                    position += field.length;
+                }
+            }
+
+            if (slot >= 0) {
+                long existing = index.getLong(slot * SLOT_BYTES);
+                garbageBytes += chunk(existing).getInt(offset(existing) + LENGTH_OFFSET);
+                liveBytes -= chunk(existing).getInt(offset(existing) + LENGTH_OFFSET);
+                index.putLong(slot * SLOT_BYTES, address);
+            } else {
+                insertSlot(hash, address);
+                size++;
+            }
+            liveBytes += length;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 查询凭证
+     *
+     * @param key 缓存键
+     * @return 凭证，不存在时返回null
+     */
+    public Credential get(String key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Credential credential = read(key);
+                if (lock.validate(stamp)) {
+                    return credential;
+                }
+            } catch (RuntimeException e) {
+                // 读取期间发生写入，数据可能不一致，改用读锁重新读取
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 占用本轮刷新
+     * 同一时刻只有一个请求能占用成功，刷新失败后需再等待一个刷新间隔才会重试
+     *
+     * @param key 缓存键
+     * @param now 当前时间（毫秒）
+     * @param refreshAfterMillis 刷新间隔（毫秒）
+     * @return 占用成功返回true
+     */
+    public boolean tryStartRefresh(String key, long now, long refreshAfterMillis) {
+        long stamp = lock.readLock();
+        try {
+            int slot = findSlot(key, hash(key));
+            if (slot < 0) {
+                return false;
+            }
+            long address = index.getLong(slot * SLOT_BYTES);
+            ByteBuffer chunk = chunk(address);
+            int position = offset(address) + NEXT_REFRESH_OFFSET;
+            long next = (long) LONG_VIEW.getVolatile(chunk, position);
+            return now >= next && LONG_VIEW.compareAndSet(chunk, position, next, now + refreshAfterMillis);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 删除凭证
+     * 已有更高版本的记录时不删除
+     *
+     * @param key 缓存键
+     * @param version 同步版本，{@link Long#MAX_VALUE} 表示无条件删除
+     * @return 删除返回true
+     */
+    public boolean remove(String key, long version) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(key, hash(key));
+            if (slot < 0) {
+                return false;
+            }
+            long address = index.getLong(slot * SLOT_BYTES);
+            if (chunk(address).getLong(offset(address) + VERSION_OFFSET) > version) {
+                return false;
+            }
+            int length = chunk(address).getInt(offset(address) + LENGTH_OFFSET);
+            index.putLong(slot * SLOT_BYTES, DELETED);
+            deletedSlots++;
+            size--;
+            liveBytes -= length;
+            garbageBytes += length;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 查找写入时间早于指定时间的缓存键
+     * 只持有读锁扫描索引，删除由 {@link #removeIfStoredBefore} 逐条完成，扫描期间写入不会长时间阻塞
+     *
+     * @param storedBefore 写入时间（毫秒）
+     * @return 缓存键
+     */
+    public List<String> keysStoredBefore(long storedBefore) {
+        return keysStoredBefore(storedBefore, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * 查找写入时间早于指定时间，或凭证已到期且写入时间早于到期凭证保留时间的缓存键
+     *
+     * @param storedBefore 写入时间（毫秒）
+     * @param expiredStoredBefore 已到期凭证的写入时间（毫秒）
+     * @param now 当前时间，用于判断凭证是否到期，为null时不按到期时间查找
+     * @return 缓存键
+     */
+    public List<String> keysStoredBefore(long storedBefore, long expiredStoredBefore, LocalDateTime now) {
+        long nowSecond = Objects.isNull(now) ? NO_EXPIRY : now.toEpochSecond(ZoneOffset.UTC);
+        List<String> keys = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < indexCapacity; slot++) {
+                long address = index.getLong(slot * SLOT_BYTES);
+                if (address != EMPTY && address != DELETED) {
+                    ByteBuffer chunk = chunk(address);
+                    int offset = offset(address);
+                    if (isRemovable(chunk, offset, storedBefore, expiredStoredBefore, nowSecond)) {
+                        keys.add(readString(chunk, offset + HEADER_BYTES, chunk.getInt(offset + KEY_LENGTH_OFFSET)));
+                    }
+                }
+            }
+            return keys;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 写入时间早于指定时间时删除凭证
+     * 扫描之后重新写入的记录不删除
+     *
+     * @param key 缓存键
+     * @param storedBefore 写入时间（毫秒）
+     * @return 被删除的凭证，未删除时返回null
+     */
+    public Credential removeIfStoredBefore(String key, long storedBefore) {
+        return removeIfStoredBefore(key, storedBefore, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * 写入时间早于指定时间，或凭证已到期且写入时间早于到期凭证保留时间时删除凭证
+     * 扫描之后重新写入的记录按新记录判断
+     *
+     * @param key 缓存键
+     * @param storedBefore 写入时间（毫秒）
+     * @param expiredStoredBefore 已到期凭证的写入时间（毫秒）
+     * @param now 当前时间，用于判断凭证是否到期，为null时不按到期时间删除
+     * @return 被删除的凭证，未删除时返回null
+     */
+    public Credential removeIfStoredBefore(String key, long storedBefore, long expiredStoredBefore,
+                                           LocalDateTime now) {
+        long nowSecond = Objects.isNull(now) ? NO_EXPIRY : now.toEpochSecond(ZoneOffset.UTC);
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(key, hash(key));
+            if (slot < 0) {
+                return null;
+            }
+            long address = index.getLong(slot * SLOT_BYTES);
+            ByteBuffer chunk = chunk(address);
+            int offset = offset(address);
+            if (!isRemovable(chunk, offset, storedBefore, expiredStoredBefore, nowSecond)) {
+                return null;
+            }
+            Credential removed = new Credential(decode(chunk, offset, chunk.getInt(offset + KEY_LENGTH_OFFSET)),
+                    chunk.getLong(offset + VERSION_OFFSET), chunk.getLong(offset + STORED_AT_OFFSET));
+            int length = chunk.getInt(offset + LENGTH_OFFSET);
+            index.putLong(slot * SLOT_BYTES, DELETED);
+            deletedSlots++;
+            size--;
+            liveBytes -= length;
+            garbageBytes += length;
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 遍历全部凭证
+     * 遍历期间持有读锁，写入会等待遍历结束
+     *
+     * @param consumer 缓存键和凭证
+     */
+    public void forEach(BiConsumer<String, ApiConfigDTO> consumer) {
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < indexCapacity; slot++) {
+                long address = index.getLong(slot * SLOT_BYTES);
+                if (address != EMPTY && address != DELETED) {
+                    ByteBuffer chunk = chunk(address);
+                    int offset = offset(address);
+                    int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+                    String key = readString(chunk, offset + HEADER_BYTES, keyLength);
+                    consumer.accept(key, decode(chunk, offset, keyLength));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 有效记录数
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 有效记录占用的堆外字节数
+     */
+    public long liveBytes() {
+        long stamp = lock.readLock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 已分配的堆外字节数，包括数据块和索引
+     */
+    public long allocatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = (long) indexCapacity * SLOT_BYTES;
+            for (ByteBuffer chunk : chunks) {
+                bytes += chunk.capacity();
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Credential read(String key) {
+        int slot = findSlot(key, hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        long address = index.getLong(slot * SLOT_BYTES);
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+        return new Credential(decode(chunk, offset, keyLength), chunk.getLong(offset + VERSION_OFFSET),
+                chunk.getLong(offset + STORED_AT_OFFSET));
+    }
+
+    /**
+     * 是否可以清理：写入时间早于指定时间，或凭证已到期且写入时间早于到期凭证保留时间
+     */
+    private static boolean isRemovable(ByteBuffer chunk, int offset, long storedBefore, long expiredStoredBefore,
+                                       long nowSecond) {
+        long storedAt = chunk.getLong(offset + STORED_AT_OFFSET);
+        if (storedAt < storedBefore) {
+            return true;
+        }
+        long expirySecond = chunk.getLong(offset + EXPIRY_SECOND_OFFSET);
+        return nowSecond != NO_EXPIRY && expirySecond != NO_EXPIRY && expirySecond < nowSecond
+                && storedAt < expiredStoredBefore;
+    }
+
+    private ApiConfigDTO decode(ByteBuffer chunk, int offset, int keyLength) {
+        ApiConfigDTO apiConfig = new ApiConfigDTO();
+        long expirySecond = chunk.getLong(offset + EXPIRY_SECOND_OFFSET);
+        if (expirySecond != NO_EXPIRY) {
+            apiConfig.setExpiryDate(LocalDateTime.ofEpochSecond(expirySecond,
+                    chunk.getInt(offset + EXPIRY_NANO_OFFSET), ZoneOffset.UTC));
+        }
+        int position = offset + HEADER_BYTES + keyLength;
+        int secretLength = chunk.getInt(offset + SECRET_LENGTH_OFFSET);
+        apiConfig.setMerchantSecret(readString(chunk, position, secretLength));
+        position += Math.max(0, secretLength);
+        int publicKeyLength = chunk.getInt(offset + PUBLIC_KEY_LENGTH_OFFSET);
+        apiConfig.setPublicKey(readString(chunk, position, publicKeyLength));
+        position += Math.max(0, publicKeyLength);
+        apiConfig.setIpWhiteList(readString(chunk, position, chunk.getInt(offset + IP_LENGTH_OFFSET)));
+        return apiConfig;
+    }
+
+    /**
+     * 读取字符串，长度超出数据块时说明乐观读期间读到了不一致的数据，提前失败
+     */
+    private static String readString(ByteBuffer chunk, int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        if (length > chunk.capacity() - position) {
+            throw new IllegalStateException("Corrupted credential record");
+        }
+        byte[] bytes = new byte[length];
+        chunk.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 查找键所在槽位
+     *
+     * @return 槽位，不存在时返回-1
+     */
+    private int findSlot(String key, int hash) {
+        ByteBuffer slots = index;
+        int mask = indexCapacity - 1;
+        for (int probe = 0, slot = hash & mask; probe < indexCapacity; probe++, slot = (slot + 1) & mask) {
+            long address = slots.getLong(slot * SLOT_BYTES);
+            if (address == EMPTY) {
+                return -1;
+            }
+            if (address != DELETED && slots.getInt(slot * SLOT_BYTES + 8) == hash && keyEquals(address, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int hash, long address) {
+        if ((size + deletedSlots + 1) * 2 > indexCapacity) {
+            rebuildIndex(size + 1 > indexCapacity / 4 ? indexCapacity * 2 : indexCapacity);
+        }
+        int mask = indexCapacity - 1;
+        int slot = hash & mask;
+        while (true) {
+            long current = index.getLong(slot * SLOT_BYTES);
+            if (current == EMPTY || current == DELETED) {
+                if (current == DELETED) {
+                    deletedSlots--;
+                }
+                index.putInt(slot * SLOT_BYTES + 8, hash);
+                index.putLong(slot * SLOT_BYTES, address);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 重建索引，同时清除已删除槽位
+     */
+    private void rebuildIndex(int capacity) {
+        ByteBuffer old = index;
+        int oldCapacity = indexCapacity;
+        ByteBuffer rebuilt = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long address = old.getLong(i * SLOT_BYTES);
+            if (address == EMPTY || address == DELETED) {
+                continue;
+            }
+            int hash = old.getInt(i * SLOT_BYTES + 8);
+            int slot = hash & mask;
+            while (rebuilt.getLong(slot * SLOT_BYTES) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            rebuilt.putInt(slot * SLOT_BYTES + 8, hash);
+            rebuilt.putLong(slot * SLOT_BYTES, address);
+        }
+        index = rebuilt;
+        indexCapacity = capacity;
+        deletedSlots = 0;
+    }
+
+    /**
+     * 废弃记录超过有效记录和一个数据块时，将有效记录复制到新的数据块
+     */
+    private void compactIfNeeded() {
+        if (garbageBytes <= liveBytes || garbageBytes <= chunkSize) {
+            return;
+        }
+        List<ByteBuffer> oldChunks = chunks;
+        chunks = new ArrayList<>();
+        newChunk(chunkSize);
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            long address = index.getLong(slot * SLOT_BYTES);
+            if (address == EMPTY || address == DELETED) {
+                continue;
+            }
+            ByteBuffer source = oldChunks.get((int) (address >>> 32));
+            int offset = (int) address;
+            int length = source.getInt(offset + LENGTH_OFFSET);
+            long moved = allocate(length);
+            chunk(moved).put(offset(moved), source, offset, length);
+            index.putLong(slot * SLOT_BYTES, moved);
+        }
+        garbageBytes = 0;
+        rebuildIndex(indexCapacity);
+    }
+
+    /**
+     * 分配记录空间，当前块不足时新建数据块
+     */
+    private long allocate(int length) {
+        if (writeOffset + length > chunks.get(chunks.size() - 1).capacity()) {
+            newChunk(Math.max(chunkSize, length + CHUNK_START));
+        }
+        long address = ((long) (chunks.size() - 1) << 32) | writeOffset;
+        writeOffset += length;
+        return address;
+    }
+
+    private void newChunk(int capacity) {
+        chunks.add(ByteBuffer.allocateDirect(capacity));
+        writeOffset = CHUNK_START;
+    }
+
+    private boolean keyEquals(long address, String key) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+        if (keyLength != key.length()) {
+            return keyLength >= key.length() && readString(chunk, offset + HEADER_BYTES, keyLength).equals(key);
+        }
+        for (int i = 0; i < keyLength; i++) {
+            char c = key.charAt(i);
+            if (c >= 0x80) {
+                return readString(chunk, offset + HEADER_BYTES, keyLength).equals(key);
+            }
+            if (chunk.get(offset + HEADER_BYTES + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private static byte[] bytes(String value) {
+        return Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] bytes) {
+        return Objects.isNull(bytes) ? 0 : bytes.length;
+    }
+}
@@ -5,7 +5,9 @@ import cn.hutool.json.JSONUtil;
 import com.sphere.common.exception.GatewayException;
 import com.sphere.common.exception.GatewayExceptionCode;
 import com.sphere.api.vo.BaseResult;
-import com.sphere.common.utils.RequestUtil;
+import com.sphere.infrastructure.filter.RequestContext;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.autoconfigure.web.ErrorProperties;
@@ -16,7 +18,6 @@ import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
@@ -26,6 +27,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import static com.sphere.common.constants.GatewayConstant.CODE;
@@ -37,7 +39,8 @@ import static com.sphere.common.constants.GatewayConstant.REQUEST_PARAM;
  * 处理网关中的各种异常，包括：
  * 1. 响应状态异常（如404）
  * 2. 业务异常（GatewayException）
- * 3. 其他系统异常
+ * 3. 上游熔断或并发已满（快速失败，返回503）
+ * 4. 其他系统异常
  * 统一返回标准格式的错误响应
  *
  * @author sphere
@@ -70,9 +73,9 @@ public class CustomWebExceptionHandler extends DefaultErrorWebExceptionHandler {
     @Override
     protected Map<String, Object> getErrorAttributes(ServerRequest request, ErrorAttributeOptions options) {
         ServerWebExchange exchange = request.exchange();
-        ServerHttpRequest httpRequest = exchange.getRequest();
-        String path = RequestUtil.getPath(httpRequest);
-        String ip = RequestUtil.getIpAddress(httpRequest);
+        RequestContext requestContext = RequestContext.of(exchange);
+        String path = requestContext.getPath();
+        String ip = requestContext.getIpAddress();
 
         Throwable error = super.getError(request);
         log.error("网关异常处理 - 路径: {}, IP: {}, 错误: {}", path, ip, error.getMessage(), error);
@@ -95,6 +98,11 @@ public class CustomWebExceptionHandler extends DefaultErrorWebExceptionHandler {
             GatewayExceptionCode exceptionCode = gatewayException.getExceptionCode();
             response = response(exceptionCode, error.getMessage());
         }
+        // 处理上游熔断和并发已满，不返回内部的熔断器名称
+        else if (error instanceof CallNotPermittedException || error instanceof BulkheadFullException) {
+            log.warn("上游快速失败 - 原因: {}", error.getMessage());
+            response = response(GatewayExceptionCode.SERVICE_UNAVAILABLE, null);
+        }
         // 处理其他异常
         else {
             log.error("系统异常 - 类型: {}", error.getClass().getName());
@@ -145,7 +153,13 @@ public class CustomWebExceptionHandler extends DefaultErrorWebExceptionHandler {
     @Override
     protected int getHttpStatus(Map<String, Object> errorAttributes) {
         log.debug("获取HTTP状态码 - 错误属性: {}", JSONUtil.toJsonStr(errorAttributes));
-        
+
+        // 上游快速失败返回503，客户端可以稍后重试
+        if (Objects.nonNull(errorAttributes)
+                && GatewayExceptionCode.SERVICE_UNAVAILABLE.getCode().equals(String.valueOf(errorAttributes.get(CODE)))) {
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+
         int statusCode = Optional.ofNullable(errorAttributes)
                 .map(e -> e.get(CODE))
                 .map(String::valueOf)
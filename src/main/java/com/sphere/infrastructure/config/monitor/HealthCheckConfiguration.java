@@ -1,5 +1,6 @@
 package com.sphere.infrastructure.config.monitor;
 
+import com.sphere.application.service.MerchantConfigWarmupService;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.context.annotation.Bean;
@@ -52,4 +53,24 @@ public class HealthCheckConfiguration {
                     .build();
         };
     }
-} 
\ No newline at end of file
+
+    /**
+     * 商户配置预热检查
+     * 预热结束前返回OUT_OF_SERVICE，加入readiness分组后就绪探针在预热完成后才通过；
+     * 已从本地快照恢复商户配置时直接返回UP
+     *
+     * @param merchantConfigWarmupService 商户配置预热服务
+     * @return HealthIndicator 实例
+     */
+    @Bean
+    public HealthIndicator merchantConfigWarmupHealthIndicator(MerchantConfigWarmupService merchantConfigWarmupService) {
+        return () -> {
+            Health.Builder builder = merchantConfigWarmupService.isReady() ? Health.up() : Health.outOfService();
+            return builder
+                    .withDetail("state", merchantConfigWarmupService.getState())
+                    .withDetail("loaded", merchantConfigWarmupService.getLoaded())
+                    .withDetail("restored", merchantConfigWarmupService.getRestored())
+                    .build();
+        };
+    }
+}
@@ -0,0 +1,236 @@
+package com.sphere.infrastructure.config.monitor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sphere.application.dto.MerchantConfigEntry;
+import com.sphere.application.service.MerchantConfigService;
+import com.sphere.infrastructure.cache.EstimatedSizeWeigher;
+import com.sphere.infrastructure.cache.LocalCacheService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存检查端点
+ * 访问路径 /actuator/localcaches
+ *
+ * 主要功能：
+ * 1. 列出全部本地缓存的条数、估算内存和统计信息
+ * 2. 查看单个缓存的热点键和写入时间分布
+ * 3. 按商户ID定向清除缓存
+ *
+ * 内存按抽样的缓存项估算，热点键来自 Caffeine 淘汰策略的访问频率抽样，仅用于排查
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@Endpoint(id = "localcaches")
+public class LocalCacheEndpoint {
+
+    /**
+     * 估算内存的抽样条数
+     */
+    private static final int MEMORY_SAMPLE_SIZE = 256;
+
+    /**
+     * 统计写入时间分布的最大条数
+     */
+    private static final int AGE_SAMPLE_SIZE = 10000;
+
+    /**
+     * 热点键条数
+     */
+    private static final int HOTTEST_LIMIT = 20;
+
+    /**
+     * 写入时间分布区间上限（秒）
+     */
+    private static final long[] AGE_BUCKETS = {60, 300, 900, 3600};
+
+    private static final String[] AGE_BUCKET_NAMES = {"<1m", "1m-5m", "5m-15m", "15m-1h", ">=1h"};
+
+    @Resource
+    LocalCacheService localCacheService;
+
+    @Resource
+    MerchantConfigService merchantConfigService;
+
+    /**
+     * 全部缓存概览
+     *
+     * @return 缓存名称到概览的映射
+     */
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        allCaches().forEach((name, cache) -> result.put(name, summary(cache)));
+        return result;
+    }
+
+    /**
+     * 单个缓存详情
+     *
+     * @param name 缓存名称
+     * @return 概览、热点键和写入时间分布，缓存不存在时返回null
+     */
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name) {
+        Cache<Object, Object> cache = allCaches().get(name);
+        if (Objects.isNull(cache)) {
+            return null;
+        }
+        Map<String, Object> result = summary(cache);
+        result.put("hottestKeys", hottestKeys(cache));
+        result.put("ageDistribution", ageDistribution(cache));
+        return result;
+    }
+
+    /**
+     * 按商户ID清除缓存
+     * 商户配置缓存和未知商户缓存按生产/沙箱缓存键清除，其余缓存清除键等于商户ID或以":商户ID"结尾的项
+     *
+     * @param merchantId 商户ID
+     * @return 缓存名称到清除条数的映射
+     */
+    @DeleteOperation
+    public Map<String, Integer> evict(@Selector String merchantId) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put(MerchantConfigService.CACHE_NAME, merchantConfigService.evictMerchant(merchantId));
+
+        String suffix = ":" + merchantId;
+        localCacheService.nativeCaches().forEach((name, cache) -> {
+            List<Object> keys = new ArrayList<>();
+            for (Object key : cache.asMap().keySet()) {
+                String text = String.valueOf(key);
+                if (text.equals(merchantId) || text.endsWith(suffix)) {
+                    keys.add(key);
+                }
+            }
+            cache.invalidateAll(keys);
+            result.put(name, keys.size());
+        });
+        log.info("按商户ID清除本地缓存 - 商户ID: {}, 结果: {}", merchantId, result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Cache<Object, Object>> allCaches() {
+        Map<String, Cache<Object, Object>> caches = new LinkedHashMap<>();
+        caches.put(MerchantConfigService.CACHE_NAME,
+                (Cache<Object, Object>) (Cache<?, ?>) merchantConfigService.getCache());
+        caches.put(MerchantConfigService.NEGATIVE_CACHE_NAME,
+                (Cache<Object, Object>) (Cache<?, ?>) merchantConfigService.getNegativeCache());
+        caches.putAll(localCacheService.nativeCaches());
+        return caches;
+    }
+
+    private Map<String, Object> summary(Cache<Object, Object> cache) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long size = cache.estimatedSize();
+        summary.put("size", size);
+        summary.put("estimatedBytes", estimatedBytes(cache, size));
+
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("loadSuccessCount", stats.loadSuccessCount());
+        statistics.put("loadFailureCount", stats.loadFailureCount());
+        statistics.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000d);
+        statistics.put("evictionCount", stats.evictionCount());
+        summary.put("stats", statistics);
+        return summary;
+    }
+
+    /**
+     * 估算内存
+     * 按权重限制容量的缓存直接使用权重合计，否则抽样估算平均大小再乘以条数
+     */
+    private long estimatedBytes(Cache<Object, Object> cache, long size) {
+        Optional<Policy.Eviction<Object, Object>> eviction = cache.policy().eviction();
+        if (eviction.isPresent() && eviction.get().isWeighted() && eviction.get().weightedSize().isPresent()) {
+            return eviction.get().weightedSize().getAsLong();
+        }
+
+        long sampledBytes = 0;
+        int sampled = 0;
+        Iterator<Map.Entry<Object, Object>> iterator = cache.asMap().entrySet().iterator();
+        while (iterator.hasNext() && sampled < MEMORY_SAMPLE_SIZE) {
+            Map.Entry<Object, Object> entry = iterator.next();
+            sampledBytes += weigh(entry.getKey(), entry.getValue());
+            sampled++;
+        }
+        return sampled == 0 ? 0 : sampledBytes / sampled * size;
+    }
+
+    private long weigh(Object key, Object value) {
+        return EstimatedSizeWeigher.INSTANCE.weigh(key, value);
+    }
+
+    /**
+     * 热点键
+     * 仅容量受限的缓存有访问频率信息
+     */
+    private List<String> hottestKeys(Cache<Object, Object> cache) {
+        List<String> keys = new ArrayList<>();
+        cache.policy().eviction().ifPresent(eviction ->
+                eviction.hottest(HOTTEST_LIMIT).keySet().forEach(key -> keys.add(String.valueOf(key))));
+        return keys;
+    }
+
+    /**
+     * 写入时间分布
+     * 商户配置按加载时间计算，其余缓存仅配置了写入后过期时可以获取写入时间
+     */
+    private Map<String, Long> ageDistribution(Cache<Object, Object> cache) {
+        Optional<Policy.FixedExpiration<Object, Object>> expireAfterWrite = cache.policy().expireAfterWrite();
+        long[] counts = new long[AGE_BUCKET_NAMES.length];
+        long now = System.nanoTime();
+        int sampled = 0;
+        for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+            if (sampled++ >= AGE_SAMPLE_SIZE) {
+                break;
+            }
+            OptionalLong age;
+            if (entry.getValue() instanceof MerchantConfigEntry<?> merchantConfig) {
+                age = OptionalLong.of(TimeUnit.NANOSECONDS.toSeconds(now - merchantConfig.getLoadedAt()));
+            } else if (expireAfterWrite.isPresent()) {
+                age = expireAfterWrite.get().ageOf(entry.getKey(), TimeUnit.SECONDS);
+            } else {
+                break;
+            }
+            if (age.isEmpty()) {
+                continue;
+            }
+            int bucket = 0;
+            while (bucket < AGE_BUCKETS.length && age.getAsLong() >= AGE_BUCKETS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            distribution.put(AGE_BUCKET_NAMES[i], counts[i]);
+        }
+        return distribution;
+    }
+}
@@ -1,11 +1,28 @@
 package com.sphere.infrastructure.config.monitor;
 
+import com.sphere.application.service.JwtTokenService;
+import com.sphere.application.service.MerchantConfigService;
+import com.sphere.application.service.MerchantConfigSyncService;
+import com.sphere.application.service.SignatureReplayService;
+import com.sphere.common.utils.SignUtil;
+import com.sphere.infrastructure.cache.MicroBatchLoader;
+import com.sphere.infrastructure.cache.OffHeapCredentialStore;
+import com.sphere.infrastructure.config.resilience.UpstreamGuard;
+import com.sphere.infrastructure.config.web.ConnectionPoolRegistry;
+import com.sphere.infrastructure.config.web.RetryBudget;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -90,4 +107,253 @@ public class MetricsConfiguration {
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .register(registry);
     }
-} 
\ No newline at end of file
+
+    /**
+     * HmacSHA512引擎缓存指标
+     * 统计引擎缓存命中率、加载次数和淘汰次数
+     *
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder hmacEngineCacheMetrics() {
+        return registry -> CaffeineCacheMetrics.monitor(registry, SignUtil.hmacEngineCache(), "hmac_engine");
+    }
+
+    /**
+     * RSA公钥缓存指标
+     *
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder rsaPublicKeyCacheMetrics() {
+        return registry -> CaffeineCacheMetrics.monitor(registry, SignUtil.rsaPublicKeyCache(), "rsa_public_key");
+    }
+
+    /**
+     * 已验证JWT缓存指标
+     * 统计令牌缓存命中率
+     *
+     * @param jwtTokenService JWT令牌校验服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder jwtTokenCacheMetrics(JwtTokenService jwtTokenService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, jwtTokenService.getCache(), "jwt_token");
+    }
+
+    /**
+     * 商户配置缓存指标
+     *
+     * @param merchantConfigService 商户配置服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantConfigCacheMetrics(MerchantConfigService merchantConfigService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, merchantConfigService.getCache(),
+                MerchantConfigService.CACHE_NAME);
+    }
+
+    /**
+     * 未知商户缓存指标
+     *
+     * @param merchantConfigService 商户配置服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantConfigNegativeCacheMetrics(MerchantConfigService merchantConfigService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, merchantConfigService.getNegativeCache(),
+                MerchantConfigService.NEGATIVE_CACHE_NAME);
+    }
+
+    /**
+     * 商户配置缓存处理结果指标
+     * 按命中、过期命中、未命中、加载失败、后台刷新成功/失败、未知商户分别计数
+     *
+     * @param merchantConfigService 商户配置服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantConfigOutcomeMetrics(MerchantConfigService merchantConfigService) {
+        return registry -> {
+            for (MerchantConfigService.CacheOutcome outcome : MerchantConfigService.CacheOutcome.values()) {
+                FunctionCounter.builder("gateway.merchant_config.outcome", merchantConfigService,
+                                service -> service.outcomeCount(outcome))
+                        .description("Merchant config lookups by cache outcome")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * 商户配置增量同步指标
+     * 按环境统计距最近一次同步成功的秒数，以及已应用的变更数和同步失败次数
+     *
+     * @param merchantConfigSyncService 商户配置增量同步服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantConfigSyncMetrics(MerchantConfigSyncService merchantConfigSyncService) {
+        return registry -> {
+            for (boolean sandbox : new boolean[]{false, true}) {
+                Gauge.builder("gateway.merchant_config.sync.lag", merchantConfigSyncService,
+                                service -> service.lagSeconds(sandbox))
+                        .description("Seconds since the last successful merchant config sync, -1 before the first")
+                        .tag("environment", sandbox ? "sandbox" : "production")
+                        .baseUnit("seconds")
+                        .register(registry);
+            }
+            FunctionCounter.builder("gateway.merchant_config.sync.applied", merchantConfigSyncService,
+                            MerchantConfigSyncService::appliedCount)
+                    .description("Merchant config changes applied from delta sync")
+                    .register(registry);
+            FunctionCounter.builder("gateway.merchant_config.sync.failures", merchantConfigSyncService,
+                            MerchantConfigSyncService::failureCount)
+                    .description("Failed merchant config delta sync rounds")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 商户配置未命中合并加载指标
+     * 按环境统计批量查询次数和查询的商户数，两者之比为平均批量大小，未开启时不注册
+     *
+     * @param merchantConfigService 商户配置服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantConfigBatchMetrics(MerchantConfigService merchantConfigService) {
+        return registry -> {
+            for (boolean sandbox : new boolean[]{false, true}) {
+                MicroBatchLoader<String, ?> loader = merchantConfigService.getBatchLoader(sandbox);
+                if (Objects.isNull(loader)) {
+                    continue;
+                }
+                String environment = sandbox ? "sandbox" : "production";
+                FunctionCounter.builder("gateway.merchant_config.batch.requests", loader, MicroBatchLoader::batchCount)
+                        .description("Batched merchant config requests sent to the payment service")
+                        .tag("environment", environment)
+                        .register(registry);
+                FunctionCounter.builder("gateway.merchant_config.batch.merchants", loader, MicroBatchLoader::keyCount)
+                        .description("Merchants loaded through batched merchant config requests")
+                        .tag("environment", environment)
+                        .register(registry);
+                FunctionCounter.builder("gateway.merchant_config.batch.fallbacks", loader, MicroBatchLoader::fallbackCount)
+                        .description("Batches that failed or returned no data and were loaded one merchant at a time")
+                        .tag("environment", environment)
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * 堆外凭证存储指标
+     * 统计商户凭证条数、有效记录字节数和已分配的堆外字节数，未开启时不注册
+     *
+     * @param merchantConfigService 商户配置服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder merchantCredentialStoreMetrics(MerchantConfigService merchantConfigService) {
+        return registry -> {
+            OffHeapCredentialStore store = merchantConfigService.getCredentialStore();
+            if (Objects.isNull(store)) {
+                return;
+            }
+            Gauge.builder("gateway.merchant_config.offheap.entries", store, OffHeapCredentialStore::size)
+                    .description("Merchant credentials held in the off-heap store")
+                    .register(registry);
+            Gauge.builder("gateway.merchant_config.offheap.live", store, OffHeapCredentialStore::liveBytes)
+                    .description("Off-heap bytes used by live merchant credential records")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("gateway.merchant_config.offheap.allocated", store, OffHeapCredentialStore::allocatedBytes)
+                    .description("Off-heap bytes allocated for merchant credential chunks and index")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 内部服务调用重试指标
+     * 统计请求数、重试次数和因重试预算不足放弃的重试次数
+     *
+     * @param webClientRetryBudget 重试预算
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder webClientRetryMetrics(RetryBudget webClientRetryBudget) {
+        return registry -> {
+            FunctionCounter.builder("gateway.webclient.requests", webClientRetryBudget, RetryBudget::requestCount)
+                    .description("Requests sent through the internal WebClient, excluding retries")
+                    .register(registry);
+            FunctionCounter.builder("gateway.webclient.retries", webClientRetryBudget, RetryBudget::retryCount)
+                    .description("Retry attempts sent through the internal WebClient")
+                    .register(registry);
+            FunctionCounter.builder("gateway.webclient.retry.budget_exhausted", webClientRetryBudget,
+                            RetryBudget::exhaustedCount)
+                    .description("Retries skipped because the retry budget was exhausted")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 出站连接池重建指标
+     * 统计配置刷新后重建连接池的次数；连接数和获取连接等待时间由连接池按名称上报（reactor.netty.connection.provider.*）
+     *
+     * @param connectionPoolRegistry 出站连接池注册表
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder connectionPoolMetrics(ConnectionPoolRegistry connectionPoolRegistry) {
+        return registry -> FunctionCounter.builder("gateway.connection_pool.reloads", connectionPoolRegistry,
+                        ConnectionPoolRegistry::reloadCount)
+                .description("Outbound connection pools rebuilt after a configuration refresh")
+                .register(registry);
+    }
+
+    /**
+     * 上游熔断器指标
+     * 按熔断器名称统计状态、失败率、慢调用比例和各类调用次数
+     *
+     * @param upstreamGuard 上游调用保护
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder upstreamCircuitBreakerMetrics(UpstreamGuard upstreamGuard) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(upstreamGuard.getCircuitBreakerRegistry());
+    }
+
+    /**
+     * 上游并发隔离指标
+     * 按名称统计可用并发数和最大并发数
+     *
+     * @param upstreamGuard 上游调用保护
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder upstreamBulkheadMetrics(UpstreamGuard upstreamGuard) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(upstreamGuard.getBulkheadRegistry());
+    }
+
+    /**
+     * 签名防重放指标
+     * 统计拒绝的重放请求数和分段已满被拒绝的请求数
+     *
+     * @param signatureReplayService 签名防重放服务
+     * @return MeterBinder 实例
+     */
+    @Bean
+    public MeterBinder signatureReplayMetrics(SignatureReplayService signatureReplayService) {
+        return registry -> {
+            FunctionCounter.builder("gateway.replay.rejected", signatureReplayService,
+                            SignatureReplayService::rejectedCount)
+                    .description("Requests rejected as signature replays")
+                    .register(registry);
+            FunctionCounter.builder("gateway.replay.overflow", signatureReplayService,
+                            SignatureReplayService::overflowCount)
+                    .description("Requests rejected because the replay segment was full")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package com.sphere.infrastructure.config.resilience;
+
+import com.sphere.common.exception.GatewayException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 上游调用保护
+ * 为每个上游（网关路由、支付服务接口方法）提供独立的熔断器和并发隔离：
+ * 并发已满或熔断打开时立即失败，不再等待连接池和响应超时，由全局异常处理返回服务不可用
+ *
+ * 结果记录：
+ * 1. 调用异常和调用方判定的失败（例如上游 5xx）计入失败率，超过慢调用时间的计入慢调用比例
+ * 2. 业务异常和 4xx 响应是请求本身的问题，不计入失败率
+ * 3. 调用被取消时不记录结果，只释放许可
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class UpstreamGuard {
+
+    @Resource
+    UpstreamResilienceProperties resilienceProperties;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private BulkheadRegistry bulkheadRegistry;
+
+    @PostConstruct
+    public void init() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig(resilienceProperties.getDefaults()));
+        bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig(resilienceProperties.getDefaults()));
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> event.getAddedEntry().getEventPublisher()
+                .onStateTransition(transition -> log.warn("熔断器状态变化 - 名称: {}, 状态: {}",
+                        transition.getCircuitBreakerName(), transition.getStateTransition())));
+        log.info("上游熔断和并发隔离初始化 - 开启: {}, 默认配置: {}", resilienceProperties.isEnabled(),
+                resilienceProperties.getDefaults());
+    }
+
+    /**
+     * 保护一次上游调用
+     *
+     * @param name 熔断器名称
+     * @param call 上游调用
+     * @return 受保护的调用
+     */
+    public <T> Mono<T> guard(String name, Mono<T> call) {
+        return guard(name, call, () -> null);
+    }
+
+    /**
+     * 保护一次上游调用
+     *
+     * @param name 熔断器名称
+     * @param call 上游调用
+     * @param failureOnComplete 调用正常结束后判断是否按失败记录，返回null表示成功
+     * @return 受保护的调用
+     */
+    public <T> Mono<T> guard(String name, Mono<T> call, Supplier<Throwable> failureOnComplete) {
+        if (!resilienceProperties.isEnabled()) {
+            return call;
+        }
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name,
+                () -> circuitBreakerConfig(resilienceProperties.resolve(name)));
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, () -> bulkheadConfig(resilienceProperties.resolve(name)));
+
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                return Mono.error(BulkheadFullException.createBulkheadFullException(bulkhead));
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.onComplete();
+                return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            Throwable failure = failureOnComplete.get();
+                            if (Objects.isNull(failure)) {
+                                circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            } else {
+                                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, failure);
+                            }
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, error);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.releasePermission();
+                        }
+                    })
+                    .doFinally(signal -> bulkhead.onComplete());
+        });
+    }
+
+    /**
+     * 保护接口客户端
+     * 返回 Mono 的方法按方法名使用独立的熔断器和并发隔离
+     *
+     * @param prefix 熔断器名称前缀
+     * @param type 接口类型
+     * @param client 接口客户端
+     * @return 受保护的接口客户端
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T guardClient(String prefix, Class<T> type, T client) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(client, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return result instanceof Mono<?> mono ? guard(prefix + method.getName(), mono) : result;
+        });
+    }
+
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return circuitBreakerRegistry;
+    }
+
+    public BulkheadRegistry getBulkheadRegistry() {
+        return bulkheadRegistry;
+    }
+
+    /**
+     * 业务异常和 4xx 响应不计入失败率
+     */
+    private static boolean isIgnored(Throwable error) {
+        return error instanceof GatewayException
+                || (error instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is4xxClientError());
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(UpstreamResilienceProperties.Spec spec) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                .slidingWindowSize((int) Math.max(1, spec.getSlidingWindow().toSeconds()))
+                .minimumNumberOfCalls(spec.getMinimumNumberOfCalls())
+                .failureRateThreshold(spec.getFailureRateThreshold())
+                .slowCallRateThreshold(spec.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(spec.getSlowCallDuration())
+                .waitDurationInOpenState(spec.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(spec.getPermittedCallsInHalfOpenState())
+                .ignoreException(UpstreamGuard::isIgnored)
+                .build();
+    }
+
+    private static BulkheadConfig bulkheadConfig(UpstreamResilienceProperties.Spec spec) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(spec.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.sphere.infrastructure.config.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 上游熔断和并发隔离配置
+ * 每个网关路由和每个支付服务接口方法使用独立的熔断器和并发隔离，按名称分别配置，未单独配置的使用默认配置
+ *
+ * 名称规则：
+ * 1. 网关路由：route- + 路由ID，例如 route-transactionDepositRouteLocator
+ * 2. 支付服务接口：payment-api- + 方法名，例如 payment-api-getMerchantConfig
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = UpstreamResilienceProperties.PREFIX)
+public class UpstreamResilienceProperties {
+
+    public static final String PREFIX = "gateway.config.resilience";
+
+    /**
+     * 是否开启熔断和并发隔离
+     */
+    private boolean enabled = true;
+
+    /**
+     * 默认配置
+     */
+    private Spec defaults = defaultSpec();
+
+    /**
+     * 按名称的配置，未配置的项沿用默认配置
+     */
+    private Map<String, Spec> instances = new LinkedHashMap<>();
+
+    /**
+     * 获取最终配置
+     *
+     * @param name 熔断器名称
+     * @return 合并默认配置后的配置
+     */
+    public Spec resolve(String name) {
+        Spec spec = instances.get(name);
+        return spec == null ? defaults : spec.withDefaults(defaults);
+    }
+
+    /**
+     * 默认配置：最近 20 秒内至少 20 次调用且失败率超过 50% 或慢调用（超过 3 秒）比例超过 80% 时熔断，
+     * 熔断 10 秒后放行 5 次试探调用；最多 100 个并发调用，超出时立即拒绝
+     */
+    private static Spec defaultSpec() {
+        Spec spec = new Spec();
+        spec.setSlidingWindow(Duration.ofSeconds(20));
+        spec.setMinimumNumberOfCalls(20);
+        spec.setFailureRateThreshold(50f);
+        spec.setSlowCallRateThreshold(80f);
+        spec.setSlowCallDuration(Duration.ofSeconds(3));
+        spec.setWaitDurationInOpenState(Duration.ofSeconds(10));
+        spec.setPermittedCallsInHalfOpenState(5);
+        spec.setMaxConcurrentCalls(100);
+        return spec;
+    }
+
+    /**
+     * 单个熔断器和并发隔离配置
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 统计窗口，按时间滑动，精确到秒
+         */
+        private Duration slidingWindow;
+
+        /**
+         * 统计窗口内计算失败率的最少调用次数
+         */
+        private Integer minimumNumberOfCalls;
+
+        /**
+         * 失败率阈值（百分比）
+         */
+        private Float failureRateThreshold;
+
+        /**
+         * 慢调用比例阈值（百分比）
+         */
+        private Float slowCallRateThreshold;
+
+        /**
+         * 慢调用时间
+         */
+        private Duration slowCallDuration;
+
+        /**
+         * 熔断持续时间，之后进入半开状态放行试探调用
+         */
+        private Duration waitDurationInOpenState;
+
+        /**
+         * 半开状态放行的试探调用次数
+         */
+        private Integer permittedCallsInHalfOpenState;
+
+        /**
+         * 最大并发调用数，已满时立即拒绝，不在事件循环线程上等待
+         */
+        private Integer maxConcurrentCalls;
+
+        /**
+         * 未配置的项使用默认配置
+         */
+        Spec withDefaults(Spec defaults) {
+            Spec merged = new Spec();
+            merged.setSlidingWindow(slidingWindow != null ? slidingWindow : defaults.getSlidingWindow());
+            merged.setMinimumNumberOfCalls(minimumNumberOfCalls != null ? minimumNumberOfCalls : defaults.getMinimumNumberOfCalls());
+            merged.setFailureRateThreshold(failureRateThreshold != null ? failureRateThreshold : defaults.getFailureRateThreshold());
+            merged.setSlowCallRateThreshold(slowCallRateThreshold != null ? slowCallRateThreshold : defaults.getSlowCallRateThreshold());
+            merged.setSlowCallDuration(slowCallDuration != null ? slowCallDuration : defaults.getSlowCallDuration());
+            merged.setWaitDurationInOpenState(waitDurationInOpenState != null ? waitDurationInOpenState : defaults.getWaitDurationInOpenState());
+            merged.setPermittedCallsInHalfOpenState(permittedCallsInHalfOpenState != null ? permittedCallsInHalfOpenState : defaults.getPermittedCallsInHalfOpenState());
+            merged.setMaxConcurrentCalls(maxConcurrentCalls != null ? maxConcurrentCalls : defaults.getMaxConcurrentCalls());
+            return merged;
+        }
+    }
+}
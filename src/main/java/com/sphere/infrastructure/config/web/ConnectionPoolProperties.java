@@ -0,0 +1,147 @@
+package com.sphere.infrastructure.config.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 出站连接池配置
+ * 按连接池名称分别配置连接数、等待、空闲回收和超时，未单独配置的连接池使用默认配置；
+ * 配置刷新后变更的连接池会重建，旧连接池在处理完进行中的请求后关闭
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = ConnectionPoolProperties.PREFIX)
+public class ConnectionPoolProperties {
+
+    public static final String PREFIX = "gateway.config.connection-pool";
+
+    /**
+     * 默认连接池配置
+     */
+    private Spec defaults = defaultSpec();
+
+    /**
+     * 按连接池名称的配置，未配置的项沿用默认配置
+     */
+    private Map<String, Spec> pools = new LinkedHashMap<>();
+
+    /**
+     * 获取连接池的最终配置
+     *
+     * @param poolName 连接池名称
+     * @return 合并默认配置后的连接池配置
+     */
+    public Spec resolve(String poolName) {
+        Spec spec = pools.get(poolName);
+        return spec == null ? defaults : spec.withDefaults(defaults);
+    }
+
+    /**
+     * 默认配置：每个目标主机最多 200 个连接，最多 1000 个请求等待连接，等待 10 秒超时；
+     * 空闲 55 秒或存活 5 分钟后关闭连接，每 30 秒后台回收一次
+     */
+    private static Spec defaultSpec() {
+        Spec spec = new Spec();
+        spec.setMaxConnections(200);
+        spec.setPendingAcquireMaxCount(1000);
+        spec.setPendingAcquireTimeout(Duration.ofSeconds(10));
+        spec.setMaxIdleTime(Duration.ofSeconds(55));
+        spec.setMaxLifeTime(Duration.ofMinutes(5));
+        spec.setEvictInBackground(Duration.ofSeconds(30));
+        spec.setConnectTimeout(Duration.ofSeconds(5));
+        spec.setResponseTimeout(Duration.ofSeconds(10));
+        spec.setReadTimeout(Duration.ofSeconds(10));
+        spec.setWriteTimeout(Duration.ofSeconds(10));
+        spec.setHosts(new LinkedHashMap<>());
+        return spec;
+    }
+
+    /**
+     * 单个连接池配置
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 每个目标主机的最大连接数
+         */
+        private Integer maxConnections;
+
+        /**
+         * 每个目标主机等待获取连接的最大请求数
+         */
+        private Integer pendingAcquireMaxCount;
+
+        /**
+         * 等待获取连接的超时时间
+         */
+        private Duration pendingAcquireTimeout;
+
+        /**
+         * 连接最长空闲时间，应小于服务端的空闲关闭时间
+         */
+        private Duration maxIdleTime;
+
+        /**
+         * 连接最长存活时间，定期重建连接使负载均衡生效
+         */
+        private Duration maxLifeTime;
+
+        /**
+         * 后台回收空闲和过期连接的间隔
+         */
+        private Duration evictInBackground;
+
+        /**
+         * 建立连接超时时间
+         */
+        private Duration connectTimeout;
+
+        /**
+         * 响应超时时间
+         */
+        private Duration responseTimeout;
+
+        /**
+         * 读超时时间
+         */
+        private Duration readTimeout;
+
+        /**
+         * 写超时时间
+         */
+        private Duration writeTimeout;
+
+        /**
+         * 按目标主机（host:port，与请求地址一致）单独配置的最大连接数
+         */
+        private Map<String, Integer> hosts;
+
+        /**
+         * 未配置的项使用默认配置
+         */
+        Spec withDefaults(Spec defaults) {
+            Spec merged = new Spec();
+            merged.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            merged.setPendingAcquireMaxCount(pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.getPendingAcquireMaxCount());
+            merged.setPendingAcquireTimeout(pendingAcquireTimeout != null ? pendingAcquireTimeout : defaults.getPendingAcquireTimeout());
+            merged.setMaxIdleTime(maxIdleTime != null ? maxIdleTime : defaults.getMaxIdleTime());
+            merged.setMaxLifeTime(maxLifeTime != null ? maxLifeTime : defaults.getMaxLifeTime());
+            merged.setEvictInBackground(evictInBackground != null ? evictInBackground : defaults.getEvictInBackground());
+            merged.setConnectTimeout(connectTimeout != null ? connectTimeout : defaults.getConnectTimeout());
+            merged.setResponseTimeout(responseTimeout != null ? responseTimeout : defaults.getResponseTimeout());
+            merged.setReadTimeout(readTimeout != null ? readTimeout : defaults.getReadTimeout());
+            merged.setWriteTimeout(writeTimeout != null ? writeTimeout : defaults.getWriteTimeout());
+            merged.setHosts(hosts != null ? hosts : defaults.getHosts());
+            return merged;
+        }
+    }
+}
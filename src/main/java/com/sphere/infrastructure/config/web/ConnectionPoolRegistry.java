@@ -0,0 +1,175 @@
+package com.sphere.infrastructure.config.web;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 出站连接池注册表
+ * 所有出站 WebClient 按名称共享连接池，同名的客户端使用同一个连接池，不再各自创建
+ *
+ * 1. 连接数限制按目标主机生效，可以按 host:port 单独配置
+ * 2. 连接池开启 Reactor Netty 指标，按连接池名称统计活跃、空闲、等待中的连接数和获取连接的等待时间
+ *    （reactor.netty.connection.provider.*）
+ * 3. 配置刷新后重建配置有变化的连接池，新请求立即使用新连接池，
+ *    旧连接池等待进行中的请求结束后关闭
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ConnectionPoolRegistry {
+
+    @Resource
+    ConnectionPoolProperties connectionPoolProperties;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * 获取连接池的连接器
+     * 每次请求使用连接池当前的 HttpClient，配置刷新后无需重建 WebClient
+     *
+     * @param poolName 连接池名称
+     * @return 连接器
+     */
+    public ClientHttpConnector connector(String poolName) {
+        pool(poolName);
+        return new PoolConnector(poolName);
+    }
+
+    /**
+     * 配置刷新后重建配置有变化的连接池
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        pools.forEach((poolName, current) -> {
+            ConnectionPoolProperties.Spec spec = connectionPoolProperties.resolve(poolName);
+            if (spec.equals(current.spec())) {
+                return;
+            }
+            Pool created = create(poolName, spec);
+            if (pools.replace(poolName, current, created)) {
+                reloads.incrementAndGet();
+                log.info("连接池配置变更，已重建 - 名称: {}, 配置: {}", poolName, spec);
+                disposeLater(poolName, current);
+            } else {
+                created.provider().dispose();
+            }
+        });
+    }
+
+    /**
+     * 关闭所有连接池
+     */
+    @PreDestroy
+    public void destroy() {
+        pools.forEach((poolName, pool) -> pool.provider().dispose());
+        pools.clear();
+    }
+
+    /**
+     * 连接池重建次数
+     */
+    public long reloadCount() {
+        return reloads.get();
+    }
+
+    private Pool pool(String poolName) {
+        return pools.computeIfAbsent(poolName, name -> create(name, connectionPoolProperties.resolve(name)));
+    }
+
+    private Pool create(String poolName, ConnectionPoolProperties.Spec spec) {
+        log.info("初始化连接池 - 名称: {}, 配置: {}", poolName, spec);
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(poolName)
+                .maxConnections(spec.getMaxConnections())
+                .pendingAcquireMaxCount(spec.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(spec.getPendingAcquireTimeout())
+                .maxIdleTime(spec.getMaxIdleTime())
+                .maxLifeTime(spec.getMaxLifeTime())
+                .evictInBackground(spec.getEvictInBackground())
+                .metrics(true);
+        spec.getHosts().forEach((host, maxConnections) ->
+                builder.forRemoteHost(remoteAddress(host), hostSpec -> hostSpec.maxConnections(maxConnections)));
+        ConnectionProvider provider = builder.build();
+
+        long readTimeout = spec.getReadTimeout().toMillis();
+        long writeTimeout = spec.getWriteTimeout().toMillis();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) spec.getConnectTimeout().toMillis())
+                .responseTimeout(spec.getResponseTimeout())
+                .doOnConnected(conn ->
+                        conn.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS))
+                                .addHandlerLast(new WriteTimeoutHandler(writeTimeout, TimeUnit.MILLISECONDS))
+                );
+        return new Pool(spec, provider, new ReactorClientHttpConnector(httpClient));
+    }
+
+    /**
+     * 旧连接池在响应超时和等待连接超时之后关闭，进行中的请求此时已经结束
+     */
+    private void disposeLater(String poolName, Pool pool) {
+        Mono.delay(pool.spec().getResponseTimeout().plus(pool.spec().getPendingAcquireTimeout()))
+                .then(pool.provider().disposeLater())
+                .subscribe(null, e -> log.warn("关闭旧连接池失败 - 名称: {}", poolName, e),
+                        () -> log.info("旧连接池已关闭 - 名称: {}", poolName));
+    }
+
+    /**
+     * 解析 host:port，与请求地址中的主机和端口一致时生效
+     */
+    private static InetSocketAddress remoteAddress(String host) {
+        int index = host.lastIndexOf(':');
+        if (index <= 0 || index == host.length() - 1) {
+            throw new IllegalArgumentException("连接池主机配置格式应为 host:port - " + host);
+        }
+        return InetSocketAddress.createUnresolved(host.substring(0, index), Integer.parseInt(host.substring(index + 1)));
+    }
+
+    private record Pool(ConnectionPoolProperties.Spec spec, ConnectionProvider provider,
+                        ReactorClientHttpConnector connector) {
+    }
+
+    /**
+     * 按名称从注册表获取当前连接池的连接器
+     */
+    private final class PoolConnector implements ClientHttpConnector {
+
+        private final String poolName;
+
+        private PoolConnector(String poolName) {
+            this.poolName = poolName;
+        }
+
+        @Override
+        public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                                Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+            return pool(poolName).connector().connect(method, uri, requestCallback);
+        }
+    }
+}
@@ -1,21 +1,28 @@
 package com.sphere.infrastructure.config.web;
 
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import io.netty.channel.ConnectTimeoutException;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 
+import java.net.ConnectException;
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -23,6 +30,14 @@ import java.util.concurrent.atomic.AtomicReference;
  * 支持运行时动态更新服务地址
  * 包含完整的错误处理、重试机制和监控
  *
+ * 重试策略：
+ * 1. 连接建立失败时请求尚未发出，任何请求都可以重试
+ * 2. 幂等请求在读写超时、连接中断和 502/503/504 时重试，其余错误（包括 4xx）不重试
+ * 3. 指数退避加随机抖动，避免多个实例同时重试
+ * 4. 重试受全局重试预算限制，下游故障时不会成倍放大请求量
+ *
+ * 连接池和超时由 {@link ConnectionPoolRegistry} 统一管理，内部服务调用使用 {@link #POOL_NAME} 连接池
+ *
  * @author sphere
  * @since 1.0.0
  */
@@ -30,97 +45,109 @@ import java.util.concurrent.atomic.AtomicReference;
 @Configuration
 public class DynamicWebClientConfig {
 
-    @Value("${webclient.connection.max-connections:200}")
-    private int maxConnections;
+    /**
+     * 内部服务调用使用的连接池名称
+     */
+    public static final String POOL_NAME = "internal";
 
-    @Value("${webclient.connection.pending-acquire-timeout:60}")
-    private int pendingAcquireTimeout;
+    @Resource
+    ConnectionPoolRegistry connectionPoolRegistry;
 
-    @Value("${webclient.connection.max-life-time:5}")
-    private int maxLifeTime;
+    @Value("${webclient.retry.max-attempts:3}")
+    private int maxRetryAttempts;
 
-    @Value("${webclient.timeout.connect:5000}")
-    private int connectTimeout;
+    @Value("${webclient.retry.initial-backoff:100}")
+    private long initialBackoff;
 
-    @Value("${webclient.timeout.response:10}")
-    private int responseTimeout;
+    @Value("${webclient.retry.max-backoff:2000}")
+    private long maxBackoff;
 
-    @Value("${webclient.timeout.read:10}")
-    private int readTimeout;
+    @Value("${webclient.retry.jitter:0.5}")
+    private double jitter;
 
-    @Value("${webclient.timeout.write:10}")
-    private int writeTimeout;
+    @Value("${webclient.retry.budget.ratio:0.1}")
+    private double budgetRatio;
 
-    @Value("${webclient.retry.max-attempts:3}")
-    private int maxRetryAttempts;
+    @Value("${webclient.retry.budget.min-per-second:5}")
+    private int budgetMinPerSecond;
 
-    @Value("${webclient.retry.initial-backoff:100}")
-    private long initialBackoff;
+    @Value("${webclient.retry.budget.window:10}")
+    private int budgetWindow;
+
+    /**
+     * 按路径视为幂等的请求，用于只读的 POST 查询接口
+     */
+    @Value("${webclient.retry.idempotent-paths:/v1/getMerchantConfig*,/sandbox/v1/getMerchantConfig*}")
+    private List<String> idempotentPaths;
+
+    /**
+     * 幂等的请求方法
+     */
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD,
+            HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    /**
+     * 幂等请求可以重试的响应状态码
+     */
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     // 动态baseUrl存储
     private final AtomicReference<String> baseUrl = new AtomicReference<>("http://localhost:8080");
 
     /**
      * 配置支持负载均衡的WebClient.Builder
-     * 包含连接池、超时、重试等配置
+     * 应用内唯一的 WebClient.Builder，使用共享连接池，包含错误处理和重试配置；
+     * 使用方需要修改配置时先 clone，避免影响其他使用方
      *
      * @return 配置好的WebClient.Builder实例
      */
     @Bean
     @LoadBalanced
     public WebClient.Builder webClientBuilder() {
-        log.info("初始化WebClient配置 - 最大连接数: {}, 连接超时: {}ms, 响应超时: {}s",
-                maxConnections, connectTimeout, responseTimeout);
-
-        // 配置连接池
-        ConnectionProvider provider = ConnectionProvider.builder("custom")
-                .maxConnections(maxConnections)
-                .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeout))
-                .maxLifeTime(Duration.ofMinutes(maxLifeTime))
-                .build();
-
-        // 配置HTTP客户端
-        HttpClient httpClient = HttpClient.create(provider)
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
-                .responseTimeout(Duration.ofSeconds(responseTimeout))
-                .doOnConnected(conn ->
-                        conn.addHandlerLast(new ReadTimeoutHandler(readTimeout))
-                                .addHandlerLast(new WriteTimeoutHandler(writeTimeout))
-                );
-
-        // 创建WebClient.Builder
+        log.info("初始化WebClient配置 - 连接池: {}", POOL_NAME);
         return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(connectionPoolRegistry.connector(POOL_NAME))
                 .filter(errorHandler())
                 .filter(retryFilter());
     }
 
+    /**
+     * 重试预算
+     * 所有经过此 WebClient 的请求共享同一预算
+     *
+     * @return 重试预算
+     */
+    @Bean
+    public RetryBudget webClientRetryBudget() {
+        log.info("初始化重试预算 - 重试比例: {}, 每秒最少重试: {}, 统计窗口: {}s",
+                budgetRatio, budgetMinPerSecond, budgetWindow);
+        return new RetryBudget(budgetRatio, budgetMinPerSecond, budgetWindow);
+    }
+
     /**
      * 错误处理过滤器
-     * 处理HTTP请求过程中的错误
+     * 将错误响应转换为带状态码和响应体的 WebClientResponseException，调用方可以按状态码区分处理
      *
      * @return ExchangeFilterFunction实例
      */
     private ExchangeFilterFunction errorHandler() {
         return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
             if (clientResponse.statusCode().is5xxServerError()) {
-                return clientResponse.bodyToMono(String.class)
-                        .flatMap(body -> {
-                            log.error("服务器错误 - 状态码: {}, 响应体: {}", 
-                                    clientResponse.statusCode(), body);
-                            return Mono.error(new RuntimeException(
-                                    String.format("服务器错误: %s, 响应体: %s", 
-                                            clientResponse.statusCode(), body)));
+                return clientResponse.createException()
+                        .flatMap(exception -> {
+                            log.error("服务器错误 - 状态码: {}, 响应体: {}",
+                                    clientResponse.statusCode(), exception.getResponseBodyAsString());
+                            return Mono.error(exception);
                         });
             }
             if (clientResponse.statusCode().is4xxClientError()) {
-                return clientResponse.bodyToMono(String.class)
-                        .flatMap(body -> {
-                            log.error("客户端错误 - 状态码: {}, 响应体: {}", 
-                                    clientResponse.statusCode(), body);
-                            return Mono.error(new RuntimeException(
-                                    String.format("客户端错误: %s, 响应体: %s", 
-                                            clientResponse.statusCode(), body)));
+                return clientResponse.createException()
+                        .flatMap(exception -> {
+                            log.error("客户端错误 - 状态码: {}, 响应体: {}",
+                                    clientResponse.statusCode(), exception.getResponseBodyAsString());
+                            return Mono.error(exception);
                         });
             }
             return Mono.just(clientResponse);
@@ -129,34 +156,103 @@ public class DynamicWebClientConfig {
 
     /**
      * 重试过滤器
-     * 使用指数退避策略对失败的请求进行重试
+     * 每次重试重新发起请求，使用带随机抖动的指数退避，重试前向重试预算申请；
+     * 重试耗尽或预算不足时返回最后一次的错误
      *
      * @return ExchangeFilterFunction实例
      */
     private ExchangeFilterFunction retryFilter() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            return Mono.just(clientRequest)
-                    .retryWhen(reactor.util.retry.Retry.backoff(maxRetryAttempts, 
-                            Duration.ofMillis(initialBackoff))
-                            .doBeforeRetry(retrySignal -> 
-                                log.warn("重试请求 - 第{}次重试, URL: {}", 
-                                        retrySignal.totalRetries() + 1, 
-                                        clientRequest.url()))
-                    )
-                    .doOnError(throwable -> 
-                        log.error("重试失败 - URL: {}, 错误: {}", 
-                                clientRequest.url(), throwable.getMessage()));
-        });
+        RetryBudget budget = webClientRetryBudget();
+        return (clientRequest, next) -> {
+            boolean idempotent = isIdempotent(clientRequest);
+            Mono<ClientResponse> exchange = next.exchange(clientRequest);
+            if (idempotent) {
+                exchange = exchange.flatMap(response -> RETRYABLE_STATUSES.contains(response.statusCode().value()) ?
+                        response.createException().flatMap(Mono::error) : Mono.just(response));
+            }
+            Mono<ClientResponse> retried = exchange.retryWhen(Retry.backoff(maxRetryAttempts, Duration.ofMillis(initialBackoff))
+                    .maxBackoff(Duration.ofMillis(maxBackoff))
+                    .jitter(jitter)
+                    .filter(error -> shouldRetry(clientRequest, error, idempotent, budget))
+                    .doBeforeRetry(retrySignal ->
+                            log.warn("重试请求 - 第{}次重试, URL: {}, 错误: {}",
+                                    retrySignal.totalRetries() + 1,
+                                    clientRequest.url(), retrySignal.failure().getMessage()))
+                    .onRetryExhaustedThrow((spec, retrySignal) -> {
+                        log.error("重试失败 - URL: {}, 重试次数: {}, 错误: {}",
+                                clientRequest.url(), retrySignal.totalRetries(),
+                                retrySignal.failure().getMessage());
+                        return retrySignal.failure();
+                    }));
+            // 订阅时才计入请求数，组装后未订阅的请求不占用预算，重试不重复计数
+            return Mono.defer(() -> {
+                budget.recordRequest();
+                return retried;
+            });
+        };
+    }
+
+    /**
+     * 判断是否重试
+     * 错误可以重试时再申请重试预算，预算不足时放弃重试
+     */
+    private boolean shouldRetry(ClientRequest clientRequest, Throwable error, boolean idempotent,
+                                RetryBudget budget) {
+        if (!isRetryable(error, idempotent)) {
+            return false;
+        }
+        if (!budget.tryAcquire()) {
+            log.warn("重试预算不足，放弃重试 - URL: {}, 错误: {}", clientRequest.url(), error.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 判断错误是否可以重试
+     * 连接建立失败时请求尚未发出，可以重试；请求发出后的超时、连接中断和网关类错误只对幂等请求重试
+     */
+    private boolean isRetryable(Throwable error, boolean idempotent) {
+        if (error instanceof WebClientResponseException responseException) {
+            return idempotent && RETRYABLE_STATUSES.contains(responseException.getStatusCode().value());
+        }
+        if (!(error instanceof WebClientRequestException) && !(error instanceof TimeoutException)) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return idempotent;
+    }
+
+    /**
+     * 判断请求是否幂等
+     * 幂等方法或配置的只读查询路径
+     */
+    private boolean isIdempotent(ClientRequest clientRequest) {
+        if (IDEMPOTENT_METHODS.contains(clientRequest.method())) {
+            return true;
+        }
+        String path = clientRequest.url().getPath();
+        for (String pattern : idempotentPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * 创建新的WebClient实例
-     * 使用当前配置的baseUrl
+     * 使用当前配置的baseUrl，与其他客户端共享连接池
      *
      * @return 新的WebClient实例
      */
     public WebClient createWebClient() {
         return webClientBuilder()
+                .clone()
                 .baseUrl(baseUrl.get())
                 .build();
     }
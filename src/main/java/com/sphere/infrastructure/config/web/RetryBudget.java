@@ -0,0 +1,116 @@
+package com.sphere.infrastructure.config.web;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 重试预算
+ * 按滑动时间窗口统计请求数和重试数，重试数不超过请求数的固定比例，
+ * 下游故障时重试不会成倍放大请求量；请求量很低时保留每秒最少重试次数
+ *
+ * 时间窗口按秒分桶，过期的桶不计入统计，在下次使用时清零
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+public class RetryBudget {
+
+    private static final long BUCKET_NANOS = 1_000_000_000L;
+
+    /**
+     * 重试数占请求数的最大比例
+     */
+    private final double ratio;
+
+    /**
+     * 每秒最少允许的重试次数
+     */
+    private final int minRetriesPerSecond;
+
+    private final int windowSeconds;
+
+    private final long[] requestBuckets;
+    private final long[] retryBuckets;
+    private final long[] bucketEpochs;
+
+    /**
+     * 累计请求数、重试数、因预算耗尽放弃的重试数
+     */
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * @param ratio 重试数占请求数的最大比例
+     * @param minRetriesPerSecond 每秒最少允许的重试次数
+     * @param windowSeconds 统计窗口（秒）
+     */
+    public RetryBudget(double ratio, int minRetriesPerSecond, int windowSeconds) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.requestBuckets = new long[this.windowSeconds];
+        this.retryBuckets = new long[this.windowSeconds];
+        this.bucketEpochs = new long[this.windowSeconds];
+    }
+
+    /**
+     * 记录一次请求，重试不重复记录
+     */
+    public synchronized void recordRequest() {
+        requestBuckets[bucket(System.nanoTime())]++;
+        requests.increment();
+    }
+
+    /**
+     * 申请一次重试
+     *
+     * @return 预算充足返回true，同时计入重试数
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        int current = bucket(now);
+        long epoch = now / BUCKET_NANOS;
+        long windowRequests = 0;
+        long windowRetries = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            if (epoch - bucketEpochs[i] < windowSeconds) {
+                windowRequests += requestBuckets[i];
+                windowRetries += retryBuckets[i];
+            }
+        }
+        long allowed = Math.max((long) minRetriesPerSecond * windowSeconds, (long) (windowRequests * ratio));
+        if (windowRetries >= allowed) {
+            exhausted.increment();
+            return false;
+        }
+        retryBuckets[current]++;
+        retries.increment();
+        return true;
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public long exhaustedCount() {
+        return exhausted.sum();
+    }
+
+    /**
+     * 当前时间所在的桶，桶已过期时清零
+     */
+    private int bucket(long now) {
+        long epoch = now / BUCKET_NANOS;
+        int index = (int) Math.floorMod(epoch, (long) windowSeconds);
+        if (bucketEpochs[index] != epoch) {
+            bucketEpochs[index] = epoch;
+            requestBuckets[index] = 0;
+            retryBuckets[index] = 0;
+        }
+        return index;
+    }
+}
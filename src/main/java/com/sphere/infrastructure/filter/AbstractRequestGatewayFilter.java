@@ -1,23 +1,21 @@
 package com.sphere.infrastructure.filter;
 
+import com.sphere.common.constants.GatewayConstant;
+import com.sphere.common.utils.JsonMinifyDigest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.BodyInserterContext;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ReactiveHttpOutputMessage;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
-import org.springframework.web.reactive.function.BodyInserter;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.server.HandlerStrategies;
-import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.annotation.NonNull;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 import java.util.function.BiFunction;
 
 @Slf4j
@@ -27,12 +25,7 @@ public abstract class AbstractRequestGatewayFilter {
      * filter
      */
     protected Mono<Void> buildVoidMono(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerRequest serverRequest = ServerRequest.create(exchange, HandlerStrategies.withDefaults().messageReaders());
-        Mono<String> modifiedBody = serverRequest.bodyToMono(String.class)
-                .flatMap(originalBody -> modifyBody().apply(exchange, originalBody));
-
-        BodyInserter<Mono<String>, ReactiveHttpOutputMessage> bodyInserter =
-                BodyInserters.fromPublisher(modifiedBody, String.class);
+        RequestContext.of(exchange);
 
         HttpHeaders headers = new HttpHeaders();
         headers.putAll(exchange.getRequest().getHeaders());
@@ -40,10 +33,72 @@ public abstract class AbstractRequestGatewayFilter {
 
         TradeCachedBodyOutputMessage outputMessage = new TradeCachedBodyOutputMessage(exchange, headers);
 
-        return bodyInserter.insert(outputMessage, new BodyInserterContext()).then(Mono.defer(() -> {
-            ServerHttpRequest decorator = decorate(exchange, headers, outputMessage);
-            return chain.filter(exchange.mutate().request(decorator).build());
-        })).onErrorResume(throwable -> release(outputMessage, throwable));
+        return readBody(exchange)
+                .flatMap(joined -> cacheBody(exchange, joined, outputMessage))
+                .then(Mono.defer(() -> outputMessage.isCached() ? Mono.<Void>empty() : outputMessage.setComplete()))
+                .then(Mono.defer(() -> {
+                    ServerHttpRequest decorator = decorate(exchange, headers, outputMessage);
+                    return chain.filter(exchange.mutate().request(decorator).build());
+                })).onErrorResume(throwable -> release(outputMessage, throwable));
+    }
+
+    /**
+     * 读取请求体
+     * 每个分片到达时增量计算压缩摘要，摘要存入 {@link GatewayConstant#REQUEST_BODY_DIGEST}，
+     * 签名校验只需使用最终摘要，无需再对完整请求体做压缩和哈希
+     */
+    protected Mono<DataBuffer> readBody(ServerWebExchange exchange) {
+        if (!digestBody()) {
+            return DataBufferUtils.join(exchange.getRequest().getBody());
+        }
+
+        JsonMinifyDigest digest = new JsonMinifyDigest();
+        return DataBufferUtils.join(exchange.getRequest().getBody().doOnNext(digest::update))
+                .doOnNext(joined -> {
+                    String hexDigest = digest.hexDigest();
+                    if (Objects.nonNull(hexDigest)) {
+                        exchange.getAttributes().put(GatewayConstant.REQUEST_BODY_DIGEST, hexDigest);
+                    }
+                });
+    }
+
+    /**
+     * 处理并缓存待转发的请求体
+     * modifyBody 原样返回请求体时直接转发原始缓冲区，不再重新编码
+     */
+    private Mono<Void> cacheBody(ServerWebExchange exchange, DataBuffer joined,
+                                 TradeCachedBodyOutputMessage outputMessage) {
+        String raw = joined.toString(StandardCharsets.UTF_8);
+        return Mono.defer(() -> modifyBody().apply(exchange, raw))
+                .map(modified -> forwardBuffer(outputMessage, joined, raw, modified))
+                .switchIfEmpty(Mono.<DataBuffer>fromRunnable(() -> DataBufferUtils.release(joined)))
+                .doOnError(throwable -> DataBufferUtils.release(joined))
+                .flatMap(buffer -> {
+                    outputMessage.getHeaders().setContentLength(buffer.readableByteCount());
+                    return outputMessage.writeWith(Mono.just(buffer));
+                });
+    }
+
+    /**
+     * 获取转发缓冲区
+     * 只读过滤器返回的是同一个字符串实例，此时沿用原始（池化）缓冲区；
+     * 请求体被修改时释放原始缓冲区并重新编码
+     */
+    private DataBuffer forwardBuffer(TradeCachedBodyOutputMessage outputMessage, DataBuffer joined,
+                                     String raw, String modified) {
+        if (modified == raw) {
+            return joined;
+        }
+        DataBufferUtils.release(joined);
+        return outputMessage.bufferFactory().wrap(modified.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 是否需要计算请求体摘要
+     * 不做签名校验的路由可覆盖返回false
+     */
+    protected boolean digestBody() {
+        return true;
     }
 
     /**
@@ -3,15 +3,14 @@ package com.sphere.infrastructure.filter;
 import cn.hutool.crypto.SecureUtil;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
-import cn.hutool.jwt.JWT;
-import cn.hutool.jwt.JWTUtil;
 import com.sphere.application.dto.ApiConfigDTO;
+import com.sphere.application.service.JwtTokenService;
 import com.sphere.application.service.MerchantConfigService;
+import com.sphere.application.service.SignatureReplayService;
 import com.sphere.common.constants.GatewayConstant;
 import com.sphere.common.enums.ServiceCodeEnum;
 import com.sphere.common.exception.GatewayException;
 import com.sphere.common.exception.GatewayExceptionCode;
-import com.sphere.common.utils.RequestUtil;
 import com.sphere.common.utils.SignUtil;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
@@ -20,9 +19,9 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
@@ -36,9 +35,20 @@ import java.util.Objects;
 @Slf4j
 public abstract class AbstractRequestService {
 
+    /**
+     * 请求时间戳格式
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     @Resource
     protected MerchantConfigService merchantConfigService;
 
+    @Resource
+    protected JwtTokenService jwtTokenService;
+
+    @Resource
+    protected SignatureReplayService signatureReplayService;
+
     /**
      * 验证请求参数和签名
      * 包括以下验证：
@@ -57,96 +67,47 @@ public abstract class AbstractRequestService {
         serverWebExchange.getAttributes().put(GatewayConstant.REQUEST_PARAM, raw);
 
         // 获取请求信息
-        RequestContext requestContext = extractRequestContext(serverWebExchange, method);
+        RequestContext requestContext = RequestContext.of(serverWebExchange);
+        logRequestInfo(method, requestContext);
         
         // 验证基本参数
         validateBasicParameters(requestContext);
         
         // 验证时间戳
-        validateTimestamp(requestContext);
+        validateTimestamp(requestContext, method);
         
         // 验证JWT token
-        validateJwtToken(requestContext);
+        validateJwtToken(requestContext, method);
         
         // 验证签名
-        return validateSignature(serverWebExchange, raw, requestContext);
-    }
-
-    /**
-     * 请求上下文数据类
-     */
-    private static class RequestContext {
-        private final String path;
-        private final String hostName;
-        private final String contentType;
-        private final String authorization;
-        private final String timestamp;
-        private final String signature;
-        private final String partnerId;
-        private final ServiceCodeEnum serviceCode;
-        private final String method;
-
-        public RequestContext(String path, String hostName, String contentType, 
-                           String authorization, String timestamp, String signature, 
-                           String partnerId, ServiceCodeEnum serviceCode, String method) {
-            this.path = path;
-            this.hostName = hostName;
-            this.contentType = contentType;
-            this.authorization = authorization;
-            this.timestamp = timestamp;
-            this.signature = signature;
-            this.partnerId = partnerId;
-            this.serviceCode = serviceCode;
-            this.method = method;
-        }
-    }
-
-    /**
-     * 提取请求上下文信息
-     */
-    private RequestContext extractRequestContext(ServerWebExchange exchange, String method) {
-        ServerHttpRequest request = exchange.getRequest();
-        String path = RequestUtil.getPath(request);
-        String hostName = RequestUtil.getHost(request);
-        String contentType = RequestUtil.getContentType(request);
-        String authorization = RequestUtil.getAuthorization(request);
-        String timestamp = RequestUtil.getTimestamp(request);
-        String signature = RequestUtil.getSignature(request);
-        String partnerId = RequestUtil.getPartnerId(request);
-        ServiceCodeEnum serviceCode = ServiceCodeEnum.pathToEnum(path);
-
-        logRequestInfo(method, authorization, timestamp, signature, partnerId);
-
-        return new RequestContext(path, hostName, contentType, authorization, 
-                                timestamp, signature, partnerId, serviceCode, method);
+        return validateSignature(serverWebExchange, raw, requestContext, method);
     }
 
     /**
      * 记录请求信息日志
      */
-    private void logRequestInfo(String method, String authorization, String timestamp, 
-                              String signature, String partnerId) {
-        log.info("{} request authorization={}", method, authorization);
-        log.info("{} request timestamp={}", method, timestamp);
-        log.info("{} request signature={}", method, signature);
-        log.info("{} request partnerId={}", method, partnerId);
+    private void logRequestInfo(String method, RequestContext context) {
+        log.info("{} request authorization={}", method, context.getAuthorization());
+        log.info("{} request timestamp={}", method, context.getTimestamp());
+        log.info("{} request signature={}", method, context.getSignature());
+        log.info("{} request partnerId={}", method, context.getPartnerId());
     }
 
     /**
      * 验证基本参数
      */
     private void validateBasicParameters(RequestContext context) {
-        if (StringUtils.isBlank(context.hostName)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST);
+        if (StringUtils.isBlank(context.getHostName())) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST);
         }
 
-        if (StringUtils.isBlank(context.contentType)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
+        if (StringUtils.isBlank(context.getContentType())) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
                                      GatewayConstant.CONTENT_TYPE);
         }
 
-        if (StringUtils.isBlank(context.authorization)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
+        if (StringUtils.isBlank(context.getAuthorization())) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
                                      GatewayConstant.AUTHORIZATION);
         }
     }
@@ -154,86 +115,130 @@ public abstract class AbstractRequestService {
     /**
      * 验证时间戳
      */
-    private void validateTimestamp(RequestContext context) {
-        if (StringUtils.isBlank(context.timestamp)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
+    private void validateTimestamp(RequestContext context, String method) {
+        if (StringUtils.isBlank(context.getTimestamp())) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
                                      GatewayConstant.X_TIMESTAMP);
         }
 
+        LocalDateTime requestTime;
         try {
-            LocalDateTime requestTime = LocalDateTime.parse(context.timestamp, 
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            LocalDateTime now = LocalDateTime.now();
-            Duration duration = Duration.between(requestTime, now);
-
-            if (duration.toMinutes() > 5) {
-                log.error("{} request timestamp expired. requestTime={}, now={}", 
-                         context.method, requestTime, now);
-                throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
-                                         "Timestamp expired");
-            }
+            requestTime = LocalDateTime.parse(context.getTimestamp(), TIMESTAMP_FORMATTER);
         } catch (Exception e) {
-            log.error("{} Invalid timestamp format: {}", context.method, context.timestamp);
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
+            log.error("{} Invalid timestamp format: {}", method, context.getTimestamp());
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
                                      "Invalid timestamp format");
         }
+
+        // 过早和超前的时间戳都拒绝，防重放只需记住窗口内的签名
+        LocalDateTime now = LocalDateTime.now();
+        Duration duration = Duration.between(requestTime, now);
+        if (duration.abs().toMinutes() > SignatureReplayService.WINDOW_MINUTES) {
+            log.error("{} request timestamp expired. requestTime={}, now={}", 
+                     method, requestTime, now);
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
+                                     "Timestamp expired");
+        }
     }
 
     /**
      * 验证JWT token
      */
-    private void validateJwtToken(RequestContext context) {
-        if (StringUtils.isBlank(context.authorization)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.UNAUTHORIZED);
+    private void validateJwtToken(RequestContext context, String method) {
+        if (StringUtils.isBlank(context.getAuthorization())) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.UNAUTHORIZED);
         }
 
-        if (!context.authorization.startsWith(GatewayConstant.BEARER)) {
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.BAD_REQUEST, 
+        if (!context.getAuthorization().startsWith(GatewayConstant.BEARER)) {
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.BAD_REQUEST, 
                                      GatewayConstant.AUTHORIZATION);
         }
 
-        String jwtToken = context.authorization.replace(GatewayConstant.BEARER, "").trim();
         try {
-            JWT jwt = JWTUtil.parseToken(jwtToken);
-            String key = SecureUtil.sha256("sphere");
-            if (!jwt.setKey(key.getBytes(StandardCharsets.UTF_8)).verify()) {
-                log.error("{} request jwt verify failed", context.method);
-                throw new GatewayException(context.serviceCode, GatewayExceptionCode.UNAUTHORIZED);
+            if (Objects.isNull(jwtTokenService.verify(context.getAccessToken()))) {
+                log.error("{} request jwt verify failed", method);
+                throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.UNAUTHORIZED);
             }
         } catch (Exception e) {
-            log.error("{} JWT verification failed", context.method, e);
-            throw new GatewayException(context.serviceCode, GatewayExceptionCode.UNAUTHORIZED);
+            log.error("{} JWT verification failed", method, e);
+            throw new GatewayException(context.getServiceCode(), GatewayExceptionCode.UNAUTHORIZED);
         }
     }
 
     /**
      * 验证签名
      */
-    private Mono<String> validateSignature(ServerWebExchange exchange, String raw, RequestContext context) {
-        return merchantConfigService.getApiConfigDTO(context.partnerId, context.hostName)
+    private Mono<String> validateSignature(ServerWebExchange exchange, String raw, RequestContext context,
+                                           String method) {
+        return merchantConfigService.getApiConfigDTO(context.getPartnerId(), context.getHostName())
                 .flatMap(configDTO -> {
                     if (Objects.isNull(configDTO) || StringUtils.isBlank(configDTO.getMerchantSecret())) {
                         log.error("{} Merchant config not exist. merchantId={}", 
-                                context.method, context.partnerId);
-                        return Mono.error(new GatewayException(context.serviceCode, 
+                                method, context.getPartnerId());
+                        return Mono.error(new GatewayException(context.getServiceCode(), 
                                      GatewayExceptionCode.UNAUTHORIZED));
                     }
 
-                    String stringToSign = SignUtil.stringToSign(context.path, 
-                            context.authorization.replace(GatewayConstant.BEARER, "").trim(), 
-                            raw, context.timestamp);
+                    if (isCredentialExpired(configDTO)) {
+                        log.error("{} Merchant credential expired. merchantId={}, expiryDate={}",
+                                method, context.getPartnerId(), configDTO.getExpiryDate());
+                        return Mono.error(new GatewayException(context.getServiceCode(),
+                                     GatewayExceptionCode.UNAUTHORIZED, "Credential Expired"));
+                    }
+
+                    // 优先使用读取请求体时增量计算的摘要
+                    String bodyDigest = exchange.getAttribute(GatewayConstant.REQUEST_BODY_DIGEST);
+                    String stringToSign = Objects.nonNull(bodyDigest)
+                            ? SignUtil.stringToSignWithDigest(context.getPath(), context.getAccessToken(),
+                                    bodyDigest, context.getTimestamp())
+                            : SignUtil.stringToSign(context.getPath(), context.getAccessToken(), raw,
+                                    context.getTimestamp());
                     String calculatedSignature = SignUtil.hmacSHA512(stringToSign, 
                             configDTO.getMerchantSecret());
 
-                    if (!calculatedSignature.equals(context.signature)) {
+                    if (!calculatedSignature.equals(context.getSignature())) {
                         log.error("{} request signature verify failed. expected={}, actual={}", 
-                                context.method, calculatedSignature, context.signature);
-                        return Mono.error(new GatewayException(context.serviceCode, 
+                                method, calculatedSignature, context.getSignature());
+                        return Mono.error(new GatewayException(context.getServiceCode(), 
                                      GatewayExceptionCode.UNAUTHORIZED));
                     }
 
+                    // 时间戳窗口内重复的签名视为重放
+                    SignatureReplayService.Outcome outcome = signatureReplayService.tryAccept(
+                            context.getPartnerId(), context.getSignature(), requestTimeMillis(context));
+                    if (outcome == SignatureReplayService.Outcome.REPLAYED) {
+                        log.error("{} request signature replayed. merchantId={}", method, context.getPartnerId());
+                        return Mono.error(new GatewayException(context.getServiceCode(),
+                                     GatewayExceptionCode.UNAUTHORIZED, "Duplicate Request"));
+                    }
+                    if (outcome == SignatureReplayService.Outcome.OVERFLOW) {
+                        return Mono.error(new GatewayException(context.getServiceCode(),
+                                     GatewayExceptionCode.SERVICE_UNAVAILABLE));
+                    }
+
                     return Mono.just(raw);
-                });
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("{} Merchant not exist or disabled. merchantId={}", method, context.getPartnerId());
+                    return Mono.error(new GatewayException(context.getServiceCode(),
+                                 GatewayExceptionCode.UNAUTHORIZED));
+                }));
+    }
+
+    /**
+     * 请求时间戳（毫秒），时间戳已在参数校验时验证格式
+     */
+    private long requestTimeMillis(RequestContext context) {
+        return LocalDateTime.parse(context.getTimestamp(), TIMESTAMP_FORMATTER)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 商户凭证是否已到期
+     * 未设置到期时间的凭证不过期
+     */
+    private boolean isCredentialExpired(ApiConfigDTO configDTO) {
+        return Objects.nonNull(configDTO.getExpiryDate()) && configDTO.getExpiryDate().isBefore(LocalDateTime.now());
     }
 
     /**
@@ -243,9 +248,9 @@ public abstract class AbstractRequestService {
         //获取参数
         ServerHttpRequest request = serverWebExchange.getRequest();
         log.info("WooCommercePayInRequestService request={}", request.getQueryParams().toSingleValueMap());
-        String path = RequestUtil.getPath(request);
-        String hostName = RequestUtil.getHost(request);
-        ServiceCodeEnum serviceCodeEnum = ServiceCodeEnum.pathToEnum(path);
+        RequestContext requestContext = RequestContext.of(serverWebExchange);
+        String hostName = requestContext.getHostName();
+        ServiceCodeEnum serviceCodeEnum = requestContext.getServiceCode();
 
 
         //校验参数
@@ -265,6 +270,10 @@ public abstract class AbstractRequestService {
                 throw new GatewayException(serviceCodeEnum, GatewayExceptionCode.UNAUTHORIZED);
                 //return Mono.error(new GatewayException(serviceCodeEnum, ResponseExceptionCode.UNAUTHORIZED));
             }
+            if (isCredentialExpired(configDTO)) {
+                log.error("WooCommercePayInRequestService Merchant credential expired. merchantId={}", merchantId);
+                throw new GatewayException(serviceCodeEnum, GatewayExceptionCode.UNAUTHORIZED, "Credential Expired");
+            }
             String merchantSecret = configDTO.getMerchantSecret();
 
             //验证Authorization
@@ -281,7 +290,10 @@ public abstract class AbstractRequestService {
             }
 
             return Mono.just(raw);
-        });
+        }).switchIfEmpty(Mono.defer(() -> {
+            log.error("WooCommercePayInRequestService Merchant not exist or disabled. merchantId={}", merchantId);
+            return Mono.error(new GatewayException(serviceCodeEnum, GatewayExceptionCode.UNAUTHORIZED));
+        }));
     }
 
 }
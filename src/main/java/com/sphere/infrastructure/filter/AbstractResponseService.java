@@ -1,11 +1,10 @@
 package com.sphere.infrastructure.filter;
 
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
 import com.sphere.common.constants.GatewayConstant;
 import com.sphere.common.enums.ServiceCodeEnum;
 import com.sphere.common.exception.GatewayException;
 import com.sphere.common.exception.GatewayExceptionCode;
+import com.sphere.common.utils.ResponseEnvelope;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
@@ -29,14 +28,15 @@ public abstract class AbstractResponseService {
      * 1. 响应数据非空验证
      * 2. 响应码验证
      * 3. 响应数据格式验证
+     * 响应只顺序扫描一次，data保留原始文本
      *
      * @param serviceCodeEnum 服务类型枚举
      * @param raw 原始响应数据
      * @param method 方法名称（用于日志）
-     * @return 处理后的响应数据
+     * @return 响应信封
      * @throws GatewayException 当响应数据验证失败时抛出
      */
-    protected String handlerResult(ServiceCodeEnum serviceCodeEnum, String raw, String method) {
+    protected ResponseEnvelope handlerResult(ServiceCodeEnum serviceCodeEnum, String raw, String method) {
         // 记录原始响应数据
         log.info("{} 开始处理响应数据: {}", method, raw);
         
@@ -47,48 +47,54 @@ public abstract class AbstractResponseService {
         }
 
         // 解析响应数据
-        JSONObject jsonObject = JSONUtil.parseObj(raw);
+        ResponseEnvelope envelope;
+        try {
+            envelope = ResponseEnvelope.read(raw);
+        } catch (IllegalArgumentException e) {
+            log.error("{} 响应数据格式错误: {}, 原始数据: {}", method, e.getMessage(), raw);
+            throw new GatewayException(serviceCodeEnum, SERVER_ERROR, "响应数据格式错误");
+        }
         
         // 验证响应码
-        Integer code = jsonObject.getInt(GatewayConstant.CODE);
+        Integer code = envelope.getCode();
         if (Objects.isNull(code)) {
             log.error("{} 响应码为空, 原始数据: {}", method, raw);
             throw new GatewayException(serviceCodeEnum, SERVER_ERROR, "响应码为空");
         }
 
         // 验证响应码是否为成功码
-        if (!code.equals(200)) {
-            String message = jsonObject.getStr(GatewayConstant.MESSAGE);
+        if (!code.equals(GatewayConstant.SUCCESS)) {
+            String message = envelope.getMessage();
             log.error("{} 响应码错误: {}, 错误信息: {}", method, code, message);
             throw new GatewayException(serviceCodeEnum, SERVER_ERROR, message);
         }
 
         // 验证响应数据
-        String data = jsonObject.getStr(GatewayConstant.DATA);
-        if (StringUtils.isBlank(data)) {
+        if (StringUtils.isBlank(envelope.getData())) {
             log.error("{} 响应数据为空", method);
             throw new GatewayException(serviceCodeEnum, SERVER_ERROR, "响应数据为空");
         }
 
+        if (!envelope.isDataObject()) {
+            log.error("{} 响应数据不是JSON对象: {}", method, envelope.getData());
+            throw new GatewayException(serviceCodeEnum, SERVER_ERROR, "响应数据格式错误");
+        }
+
         log.info("{} 响应数据处理完成", method);
-        return data;
+        return envelope;
     }
 
     /**
-     * 构建成功响应头
+     * 构建成功响应
      * 如果响应数据中缺少必要的字段，则添加默认值
      *
-     * @param data 响应数据
-     * @return 包含成功响应头的JSONObject
+     * @param envelope 响应信封
+     * @return 成功响应JSON
      */
-    protected JSONObject buildSuccessHeader(String data) {
-        JSONObject object = JSONUtil.parseObj(data);
+    protected String buildSuccessHeader(ResponseEnvelope envelope) {
         GatewayExceptionCode exceptionCode = GatewayExceptionCode.SUCCESS;
 
         // 设置默认响应码和消息
-        object.putIfAbsent(GatewayConstant.CODE, exceptionCode.getCode());
-        object.putIfAbsent(GatewayConstant.MESSAGE, exceptionCode.getMessage());
-        
-        return object;
+        return envelope.successBody(exceptionCode.getCode(), exceptionCode.getMessage());
     }
 }
@@ -0,0 +1,118 @@
+package com.sphere.infrastructure.filter;
+
+import com.sphere.common.constants.GatewayConstant;
+import com.sphere.common.enums.ServiceCodeEnum;
+import com.sphere.common.utils.RequestUtil;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Objects;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 请求上下文
+ * 每个请求在路由开始时解析一次请求头、路径和服务类型，
+ * 存入 {@link GatewayConstant#REQUEST_CONTEXT}，请求处理、响应处理和异常处理共用同一实例
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Getter
+public final class RequestContext {
+
+    /**
+     * 请求路径
+     */
+    private final String path;
+
+    /**
+     * Host
+     */
+    private final String hostName;
+
+    /**
+     * 客户端IP
+     */
+    private final String ipAddress;
+
+    /**
+     * Content-Type
+     */
+    private final String contentType;
+
+    /**
+     * Authorization
+     */
+    private final String authorization;
+
+    /**
+     * 去掉Bearer前缀的访问令牌
+     */
+    private final String accessToken;
+
+    /**
+     * X-TIMESTAMP
+     */
+    private final String timestamp;
+
+    /**
+     * X-SIGNATURE
+     */
+    private final String signature;
+
+    /**
+     * X-PARTNER-ID
+     */
+    private final String partnerId;
+
+    /**
+     * 服务类型，无法识别时为null
+     */
+    private final ServiceCodeEnum serviceCode;
+
+    private RequestContext(ServerHttpRequest request, Route route) {
+        this.path = RequestUtil.getPath(request);
+        this.hostName = RequestUtil.getHost(request);
+        this.ipAddress = RequestUtil.getIpAddress(request);
+        this.contentType = RequestUtil.getContentType(request);
+        this.authorization = RequestUtil.getAuthorization(request);
+        this.accessToken = StringUtils.isBlank(authorization) ? null :
+                authorization.replace(GatewayConstant.BEARER, "").trim();
+        this.timestamp = RequestUtil.getTimestamp(request);
+        this.signature = RequestUtil.getSignature(request);
+        this.partnerId = RequestUtil.getPartnerId(request);
+        this.serviceCode = resolveServiceCode(path, route);
+    }
+
+    /**
+     * 解析服务类型
+     * 优先读取路由元数据中绑定的服务类型，未命中路由时按路径精确匹配
+     */
+    private static ServiceCodeEnum resolveServiceCode(String path, Route route) {
+        if (Objects.nonNull(route)
+                && route.getMetadata().get(GatewayConstant.ROUTE_SERVICE_CODE) instanceof ServiceCodeEnum serviceCode) {
+            return serviceCode;
+        }
+        return ServiceCodeEnum.pathToEnum(path);
+    }
+
+    /**
+     * 获取请求上下文
+     * 已解析过则直接返回，否则解析后存入exchange属性
+     *
+     * @param exchange 请求交换对象
+     * @return 请求上下文
+     */
+    public static RequestContext of(ServerWebExchange exchange) {
+        RequestContext context = exchange.getAttribute(GatewayConstant.REQUEST_CONTEXT);
+        if (Objects.isNull(context)) {
+            context = new RequestContext(exchange.getRequest(), exchange.getAttribute(GATEWAY_ROUTE_ATTR));
+            exchange.getAttributes().put(GatewayConstant.REQUEST_CONTEXT, context);
+        }
+        return context;
+    }
+}
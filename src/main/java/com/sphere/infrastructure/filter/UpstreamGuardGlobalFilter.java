@@ -0,0 +1,56 @@
+package com.sphere.infrastructure.filter;
+
+import com.sphere.infrastructure.config.resilience.UpstreamGuard;
+import jakarta.annotation.Resource;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 路由上游保护过滤器
+ * 每个路由使用独立的熔断器和并发隔离，只包住转发到上游的调用，请求校验等前置过滤器的失败不计入；
+ * 上游返回 5xx 时按失败记录
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+@Component
+public class UpstreamGuardGlobalFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 熔断器名称前缀
+     */
+    public static final String NAME_PREFIX = "route-";
+
+    @Resource
+    UpstreamGuard upstreamGuard;
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (Objects.isNull(route)) {
+            return chain.filter(exchange);
+        }
+        return upstreamGuard.guard(NAME_PREFIX + route.getId(), chain.filter(exchange), () -> {
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            return Objects.nonNull(statusCode) && statusCode.is5xxServerError() ?
+                    new ResponseStatusException(statusCode, "Upstream responded " + statusCode.value()) : null;
+        });
+    }
+}
@@ -1,13 +1,11 @@
 package com.sphere.infrastructure.filter.disbursement.production;
 
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
 import com.sphere.common.enums.ServiceCodeEnum;
 import com.sphere.common.exception.GatewayException;
+import com.sphere.common.utils.ResponseEnvelope;
 import com.sphere.infrastructure.filter.AbstractResponseService;
-import com.sphere.common.utils.RequestUtil;
+import com.sphere.infrastructure.filter.RequestContext;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -24,19 +22,15 @@ public class DisbursementCashOutResponseService extends AbstractResponseService
      * 处理 response
      */
     public String handlerResponse(ServerWebExchange serverWebExchange, String raw) {
-        ServerHttpRequest request = serverWebExchange.getRequest();
-        String path = RequestUtil.getPath(request);
-
-        ServiceCodeEnum serviceCodeEnum = ServiceCodeEnum.pathToEnum(path);
+        ServiceCodeEnum serviceCodeEnum = RequestContext.of(serverWebExchange).getServiceCode();
         if (Objects.isNull(serviceCodeEnum)) {
             throw new GatewayException(ServiceCodeEnum.UNKNOWN, BAD_REQUEST);
         }
 
         // 处理结果
-        String data = handlerResult(serviceCodeEnum, raw, "DisbursementCashOutResponseService");
+        ResponseEnvelope envelope = handlerResult(serviceCodeEnum, raw, "DisbursementCashOutResponseService");
 
-        JSONObject object = buildSuccessHeader(data);
-        return JSONUtil.toJsonStr(object);
+        return buildSuccessHeader(envelope);
     }
 
 }
@@ -39,6 +39,14 @@ public class PaymentRequestGatewayFilter extends AbstractRequestGatewayFilter
         return buildVoidMono(exchange, chain);
     }
 
+    /**
+     * 渠道请求不做签名校验，无需计算请求体摘要
+     */
+    @Override
+    protected boolean digestBody() {
+        return false;
+    }
+
     /**
      * modify request body
      */
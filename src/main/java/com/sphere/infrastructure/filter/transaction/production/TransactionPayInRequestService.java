@@ -3,10 +3,9 @@ package com.sphere.infrastructure.filter.transaction.production;
 import com.sphere.common.enums.ServiceCodeEnum;;
 import com.sphere.common.exception.GatewayException;
 import com.sphere.infrastructure.filter.AbstractRequestService;
+import com.sphere.infrastructure.filter.RequestContext;
 import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
-import com.sphere.common.utils.RequestUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -24,8 +23,7 @@ public class TransactionPayInRequestService extends AbstractRequestService {
      * 处理 request
      */
     public Mono<String> handlerRequest(ServerWebExchange serverWebExchange, String raw) {
-        ServerHttpRequest request = serverWebExchange.getRequest();
-        String partnerId = RequestUtil.getPartnerId(request);
+        String partnerId = RequestContext.of(serverWebExchange).getPartnerId();
 
         String responseMessage = "Unknown Client. Merchant ID: " + partnerId;
         MerchantConfigDTO configDTO = serverWebExchange.getAttribute(MERCHANT_CONFIG);
@@ -1,14 +1,21 @@
 package com.sphere.infrastructure.integration.payment;
 
+import com.sphere.infrastructure.integration.payment.dto.MerchantConfigChangesDTO;
 import com.sphere.infrastructure.integration.payment.dto.MerchantConfigDTO;
 import com.sphere.infrastructure.integration.payment.dto.MerchantSandboxConfigDTO;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigChangesParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantConfigPageParam;
 import com.sphere.infrastructure.integration.payment.param.MerchantIdParam;
+import com.sphere.infrastructure.integration.payment.param.MerchantIdsParam;
+import com.sphere.api.vo.PageResult;
 import com.sphere.api.vo.Result;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.HttpExchange;
 import org.springframework.web.service.annotation.PostExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * 支付服务API接口
  * 使用@HttpExchange注解定义HTTP接口
@@ -37,4 +44,66 @@ public interface PaymentServiceApi {
      */
     @PostExchange("/v1/getMerchantConfig")
     Mono<Result<MerchantConfigDTO>> getMerchantConfig(@RequestBody MerchantIdParam param);
+
+    /**
+     * 按商户ID批量查询沙箱商户配置
+     * 只返回存在且启用的商户，用于合并不同商户的缓存未命中
+     *
+     * @param param 商户ID列表参数
+     * @return 沙箱商户配置列表
+     */
+    @PostExchange("/sandbox/v1/getMerchantConfigsByIds")
+    Mono<Result<List<MerchantSandboxConfigDTO>>> getSandboxMerchantConfigsByIds(@RequestBody MerchantIdsParam param);
+
+    /**
+     * 按商户ID批量查询商户配置
+     * 只返回存在且启用的商户，用于合并不同商户的缓存未命中
+     *
+     * @param param 商户ID列表参数
+     * @return 商户配置列表
+     */
+    @PostExchange("/v1/getMerchantConfigsByIds")
+    Mono<Result<List<MerchantConfigDTO>>> getMerchantConfigsByIds(@RequestBody MerchantIdsParam param);
+
+    /**
+     * 分页批量查询沙箱商户配置
+     * 只返回启用状态的商户，用于启动预热
+     *
+     * @param param 分页参数
+     * @return 沙箱商户配置分页结果
+     */
+    @PostExchange("/sandbox/v1/getMerchantConfigs")
+    Mono<PageResult<MerchantSandboxConfigDTO>> getSandboxMerchantConfigs(@RequestBody MerchantConfigPageParam param);
+
+    /**
+     * 分页批量查询商户配置
+     * 只返回启用状态的商户，用于启动预热
+     *
+     * @param param 分页参数
+     * @return 商户配置分页结果
+     */
+    @PostExchange("/v1/getMerchantConfigs")
+    Mono<PageResult<MerchantConfigDTO>> getMerchantConfigs(@RequestBody MerchantConfigPageParam param);
+
+    /**
+     * 查询沙箱商户配置增量变更
+     * 起始版本为空时只返回当前版本号，用于确定同步基线
+     *
+     * @param param 起始版本和条数参数
+     * @return 沙箱商户配置变更
+     */
+    @PostExchange("/sandbox/v1/getMerchantConfigChanges")
+    Mono<Result<MerchantConfigChangesDTO<MerchantSandboxConfigDTO>>> getSandboxMerchantConfigChanges(
+            @RequestBody MerchantConfigChangesParam param);
+
+    /**
+     * 查询商户配置增量变更
+     * 起始版本为空时只返回当前版本号，用于确定同步基线
+     *
+     * @param param 起始版本和条数参数
+     * @return 商户配置变更
+     */
+    @PostExchange("/v1/getMerchantConfigChanges")
+    Mono<Result<MerchantConfigChangesDTO<MerchantConfigDTO>>> getMerchantConfigChanges(
+            @RequestBody MerchantConfigChangesParam param);
 }
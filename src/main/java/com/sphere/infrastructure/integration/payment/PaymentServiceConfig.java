@@ -1,5 +1,6 @@
 package com.sphere.infrastructure.integration.payment;
 
+import com.sphere.infrastructure.config.resilience.UpstreamGuard;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,8 +13,8 @@ import java.time.Duration;
 
 /**
  * 支付服务配置类
- * 使用动态WebClient配置
- * 支持运行时更新服务地址
+ * 使用共享连接池的负载均衡WebClient，按服务名调用支付服务
+ * 每个接口方法使用独立的熔断器和并发隔离
  *
  * @author sphere
  * @since 1.0.0
@@ -22,22 +23,36 @@ import java.time.Duration;
 @Configuration
 public class PaymentServiceConfig {
 
+    /**
+     * 熔断器名称前缀
+     */
+    public static final String GUARD_NAME_PREFIX = "payment-api-";
+
     @Value("${payment.service.timeout:30}")
     private int timeout;
 
+    /**
+     * 支付服务地址，主机名为注册中心中的服务名
+     */
+    @Value("${payment.service.base-url:http://sphere-payment}")
+    private String baseUrl;
+
     /**
      * 配置支付服务API客户端
      * 使用动态WebClient配置
      *
      * @param webClientBuilder 注入的WebClient.Builder
+     * @param upstreamGuard 上游调用保护
      * @return PaymentServiceApi实例
      */
     @Bean
-    public PaymentServiceApi paymentServiceApi(WebClient.Builder webClientBuilder) {
-        log.info("初始化支付服务API客户端 - 超时: {}秒", timeout);
+    public PaymentServiceApi paymentServiceApi(WebClient.Builder webClientBuilder, UpstreamGuard upstreamGuard) {
+        log.info("初始化支付服务API客户端 - 地址: {}, 超时: {}秒", baseUrl, timeout);
 
-        // 创建WebClient实例
-        WebClient webClient = webClientBuilder.build();
+        // 创建WebClient实例，clone 后设置地址，不修改共享的 Builder
+        WebClient webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .build();
 
         // 创建HttpServiceProxyFactory
         HttpServiceProxyFactory factory = HttpServiceProxyFactory
@@ -47,7 +62,8 @@ public class PaymentServiceConfig {
                 .build();
 
         // 创建并返回PaymentServiceApi实例
-        PaymentServiceApi paymentServiceApi = factory.createClient(PaymentServiceApi.class);
+        PaymentServiceApi paymentServiceApi = upstreamGuard.guardClient(GUARD_NAME_PREFIX, PaymentServiceApi.class,
+                factory.createClient(PaymentServiceApi.class));
         log.info("支付服务API客户端初始化完成");
         
         return paymentServiceApi;
@@ -0,0 +1,35 @@
+package com.sphere.infrastructure.integration.payment.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 商户配置增量变更
+ * 按版本号顺序返回起始版本之后变更的商户配置
+ *
+ * @param <T> 商户配置类型（生产/沙箱）
+ */
+@Data
+public class MerchantConfigChangesDTO<T> {
+
+    /**
+     * 本批变更后的版本号，下次从此版本继续查询
+     */
+    private Long version;
+
+    /**
+     * 是否还有未返回的变更
+     */
+    private Boolean hasMore;
+
+    /**
+     * 新增或修改的商户配置
+     */
+    private List<T> updated;
+
+    /**
+     * 删除或停用的商户ID
+     */
+    private List<String> removed;
+}
@@ -0,0 +1,21 @@
+package com.sphere.infrastructure.integration.payment.param;
+
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class MerchantConfigChangesParam {
+
+    /**
+     * 起始版本（不含），为空时只返回当前版本号，不返回变更
+     */
+    private Long sinceVersion;
+
+    /**
+     * 单次返回的最大变更条数
+     */
+    private Integer limit;
+
+}
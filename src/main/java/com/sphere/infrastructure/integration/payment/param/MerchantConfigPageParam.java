@@ -0,0 +1,21 @@
+package com.sphere.infrastructure.integration.payment.param;
+
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class MerchantConfigPageParam {
+
+    /**
+     * 页码，从1开始
+     */
+    private Integer pageNum;
+
+    /**
+     * 每页条数
+     */
+    private Integer pageSize;
+
+}
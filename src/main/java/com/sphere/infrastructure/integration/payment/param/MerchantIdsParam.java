@@ -0,0 +1,18 @@
+package com.sphere.infrastructure.integration.payment.param;
+
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class MerchantIdsParam {
+
+    /**
+     * 商户ID列表
+     */
+    private List<String> merchantIds;
+
+}
@@ -38,6 +38,7 @@ public class RouteLocatorBalance {
                         .filters(f -> f.rewritePath(ServiceCodeEnum.INQUIRY_BALANCE.getPath(), ServiceCodeEnum.INQUIRY_BALANCE.getRewritePath())
                                 .filter(balanceRequestGatewayFilter)
                                 .filter(balanceResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.INQUIRY_BALANCE)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -40,6 +40,7 @@ public class RouteLocatorDisbursementPayout {
                                         ServiceCodeEnum.DISBURSEMENT_PAYOUT.getSandboxRewritePath())
                                 .filter(sandboxDisbursementCashOutRequestGatewayFilter)
                                 .filter(sandboxDisbursementCashOutResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.DISBURSEMENT_PAYOUT)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -57,6 +58,7 @@ public class RouteLocatorDisbursementPayout {
                                         ServiceCodeEnum.DISBURSEMENT_PAYOUT.getRewritePath())
                                 .filter(disbursementCashOutRequestGatewayFilter)
                                 .filter(disbursementCashOutResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.DISBURSEMENT_PAYOUT)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -37,6 +37,7 @@ public class RouteLocatorInquiryStatus {
                         .filters(f -> f.rewritePath(ServiceCodeEnum.INQUIRY_STATUS.getPath(), ServiceCodeEnum.INQUIRY_STATUS.getSandboxRewritePath())
                                 .filter(sandboxInquiryStatusRequestGatewayFilter)
                                 .filter(sandboxInquiryStatusResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.INQUIRY_STATUS)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -53,6 +54,7 @@ public class RouteLocatorInquiryStatus {
                         .filters(f -> f.rewritePath(ServiceCodeEnum.INQUIRY_STATUS.getPath(), ServiceCodeEnum.INQUIRY_STATUS.getRewritePath())
                                 .filter(inquiryStatusRequestGatewayFilter)
                                 .filter(inquiryStatusResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.INQUIRY_STATUS)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -37,6 +37,7 @@ public class RouteLocatorTransactionDeposit {
                         .filters(f -> f.rewritePath(ServiceCodeEnum.TRANSACTION_DEPOSIT.getPath(), ServiceCodeEnum.TRANSACTION_DEPOSIT.getSandboxRewritePath())
                                 .filter(sandboxTransactionPayInRequestGatewayFilter)
                                 .filter(sandboxTransactionPayInResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.TRANSACTION_DEPOSIT)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
@@ -53,6 +54,7 @@ public class RouteLocatorTransactionDeposit {
                         .filters(f -> f.rewritePath(ServiceCodeEnum.TRANSACTION_DEPOSIT.getPath(), ServiceCodeEnum.TRANSACTION_DEPOSIT.getRewritePath())
                                 .filter(transactionPayInRequestGatewayFilter)
                                 .filter(transactionPayInResponseGatewayFilter))
+                        .metadata(GatewayConstant.ROUTE_SERVICE_CODE, ServiceCodeEnum.TRANSACTION_DEPOSIT)
                         .uri(GatewayConstant.URL_PAYMENT))
                 .build();
     }
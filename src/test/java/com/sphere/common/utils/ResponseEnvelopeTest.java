@@ -0,0 +1,175 @@
+package com.sphere.common.utils;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.sphere.common.constants.GatewayConstant;
+import com.sphere.common.enums.ServiceCodeEnum;
+import com.sphere.common.exception.GatewayException;
+import com.sphere.common.exception.GatewayExceptionCode;
+import com.sphere.infrastructure.filter.AbstractResponseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 响应信封测试
+ * 逐条对比 ResponseEnvelope 与原先基于 JSON 对象树的 handlerResult + buildSuccessHeader 的处理结果：
+ * 成功时输出的 JSON 语义相同，失败时同样失败且错误消息相同
+ *
+ * @author sphere
+ * @since 1.0.0
+ */
+class ResponseEnvelopeTest {
+
+    private final TestResponseService responseService = new TestResponseService();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // 基本成功响应
+            "{\"code\":200,\"message\":\"success\",\"data\":{\"orderId\":\"ORD1\",\"amount\":150000}}",
+            "  {\n  \"code\" : 200 ,\n  \"data\" : { \"orderId\" : \"ORD1\" }\n}\n",
+            "{\"code\":200,\"data\":{}}",
+            "{\"code\":200,\"data\":{ }}",
+            // data 已包含 code、message
+            "{\"code\":200,\"data\":{\"code\":\"201\",\"message\":\"pending\",\"orderId\":\"ORD1\"}}",
+            "{\"code\":200,\"data\":{\"code\":201}}",
+            "{\"code\":200,\"data\":{\"message\":\"pending\"}}",
+            // data 中 code、message 为 null 时按不存在处理
+            "{\"code\":200,\"data\":{\"code\":null,\"message\":null,\"orderId\":\"ORD1\"}}",
+            "{\"code\":200,\"data\":{\"orderId\":\"ORD1\",\"message\":null,\"code\":null}}",
+            "{\"code\":200,\"data\":{\"code\":null}}",
+            "{\"code\":200,\"data\":{\"message\" : null , \"code\":\"201\"}}",
+            // 响应码写法
+            "{\"code\":\"200\",\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"code\":200.0,\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"code\":\"200.0\",\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"code\":2e2,\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"code\":null,\"message\":\"ok\",\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"message\":\"ok\",\"data\":{\"orderId\":\"ORD1\"}}",
+            "{\"code\":\"abc\",\"data\":{\"orderId\":\"ORD1\"}}",
+            // 失败响应码，message 缺失、为 null、包含转义
+            "{\"code\":500,\"message\":\"internal error\",\"data\":null}",
+            "{\"code\":500,\"data\":null}",
+            "{\"code\":500,\"message\":null}",
+            "{\"code\":400,\"message\":\"bad \\\"merchant\\\" \\\\ \\u4e2d\\u6587\\n\"}",
+            // 转义字符串
+            "{\"code\":200,\"message\":\"\\u6210\\u529f\",\"data\":{\"name\":\"a\\\"b\\\\c\\u00e9\\n\",\"url\":\"https:\\/\\/example.com\\/cb?a=1&b=\\\"}\\\"\"}}",
+            "{\"code\":200,\"data\":{\"note\":\"contains \\\"code\\\":1 and } braces\",\"items\":[\"{\",\"}\"]}}",
+            // 嵌套 data，只有顶层 code、message 生效
+            "{\"code\":200,\"data\":{\"order\":{\"code\":\"X\",\"message\":\"nested\"},\"items\":[{\"code\":1},{\"message\":null}]}}",
+            "{\"code\":200,\"data\":{\"order\":{\"code\":null},\"code\":\"202\"}}",
+            // data 为 JSON 字符串
+            "{\"code\":200,\"data\":\"{\\\"orderId\\\":\\\"ORD1\\\",\\\"code\\\":\\\"201\\\"}\"}",
+            "{\"code\":200,\"data\":\"{\\\"orderId\\\":\\\"ORD1\\\",\\\"code\\\":null}\"}",
+            "{\"code\":200,\"data\":\"{\\\"name\\\":\\\"a\\\\\\\"b\\\"}\"}",
+            // data 缺失、为 null、为空
+            "{\"code\":200,\"message\":\"ok\"}",
+            "{\"code\":200,\"data\":null}",
+            "{\"code\":200,\"data\":\"\"}",
+            "{\"code\":200,\"data\":\"   \"}"
+    })
+    void matchesObjectTreeResult(String raw) {
+        Outcome expected = outcome(() -> legacy(raw));
+        Outcome actual = outcome(() -> responseService.handlerResponse(raw));
+
+        assertThat(actual.matches(expected))
+                .as("expected %s but was %s", expected, actual)
+                .isTrue();
+    }
+
+    @Test
+    void keepsNullMembersInData() {
+        String body = responseService.handlerResponse(
+                "{\"code\":200,\"data\":{\"orderId\":\"ORD1\",\"remark\":null,\"extra\":{\"note\":null}}}");
+
+        // 原先序列化对象树时丢弃值为null的字段，现在 data 的其余内容原样输出
+        assertThat(body)
+                .contains("\"remark\":null")
+                .contains("\"extra\":{\"note\":null}")
+                .contains("\"code\":\"" + GatewayExceptionCode.SUCCESS.getCode() + "\"");
+    }
+
+    @Test
+    void replacesNullCodeAndMessageInPlace() {
+        String body = responseService.handlerResponse(
+                "{\"code\":200,\"data\":{\"code\":null,\"orderId\":\"ORD1\",\"message\":null}}");
+
+        assertThat(body).isEqualTo("{\"code\":\"" + GatewayExceptionCode.SUCCESS.getCode()
+                + "\",\"orderId\":\"ORD1\",\"message\":\"" + GatewayExceptionCode.SUCCESS.getMessage() + "\"}");
+    }
+
+    @Test
+    void rejectsInvalidJson() {
+        assertThatThrownBy(() -> ResponseEnvelope.read("{\"code\":200,\"data\":{\"a\":1}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ResponseEnvelope.read("{\"code\":200} trailing"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 原先的处理流程：解析为对象树，读取 code、message、data，再向 data 补充默认值
+     */
+    private static String legacy(String raw) {
+        JSONObject jsonObject = JSONUtil.parseObj(raw);
+        Integer code = jsonObject.getInt(GatewayConstant.CODE);
+        if (Objects.isNull(code)) {
+            throw new GatewayException(ServiceCodeEnum.TRANSACTION_DEPOSIT, GatewayExceptionCode.SERVER_ERROR, "响应码为空");
+        }
+        if (!code.equals(200)) {
+            throw new GatewayException(ServiceCodeEnum.TRANSACTION_DEPOSIT, GatewayExceptionCode.SERVER_ERROR,
+                    jsonObject.getStr(GatewayConstant.MESSAGE));
+        }
+        String data = jsonObject.getStr(GatewayConstant.DATA);
+        if (Objects.isNull(data) || data.isBlank()) {
+            throw new GatewayException(ServiceCodeEnum.TRANSACTION_DEPOSIT, GatewayExceptionCode.SERVER_ERROR, "响应数据为空");
+        }
+        JSONObject object = JSONUtil.parseObj(data);
+        GatewayExceptionCode exceptionCode = GatewayExceptionCode.SUCCESS;
+        object.putIfAbsent(GatewayConstant.CODE, exceptionCode.getCode());
+        object.putIfAbsent(GatewayConstant.MESSAGE, exceptionCode.getMessage());
+        return JSONUtil.toJsonStr(object);
+    }
+
+    private static Outcome outcome(Supplier<String> handler) {
+        try {
+            return new Outcome(handler.get(), null);
+        } catch (GatewayException e) {
+            return new Outcome(null, e.getMessage());
+        } catch (RuntimeException e) {
+            // 原先的流程对非对象 data 直接抛出解析异常，只要求同样失败
+            return new Outcome(null, "");
+        }
+    }
+
+    /**
+     * 处理结果：成功时的响应 JSON，或失败时的错误消息
+     */
+    private record Outcome(String body, String error) {
+
+        boolean matches(Outcome other) {
+            if (Objects.nonNull(body) || Objects.nonNull(other.body)) {
+                // 按对象树比较，忽略格式差异和值为null的字段
+                return Objects.nonNull(body) && Objects.nonNull(other.body)
+                        && JSONUtil.parseObj(body).equals(JSONUtil.parseObj(other.body));
+            }
+            return error.isEmpty() || other.error.isEmpty() || error.equals(other.error);
+        }
+    }
+
+    /**
+     * 暴露 AbstractResponseService 的受保护方法
+     */
+    private static class TestResponseService extends AbstractResponseService {
+
+        String handlerResponse(String raw) {
+            ResponseEnvelope envelope = handlerResult(ServiceCodeEnum.TRANSACTION_DEPOSIT, raw, "ResponseEnvelopeTest");
+            return buildSuccessHeader(envelope);
+        }
+    }
+}